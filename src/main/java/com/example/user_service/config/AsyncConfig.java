@@ -0,0 +1,74 @@
+package com.example.user_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // Boot only creates its applicationTaskExecutor while no other Executor bean exists, so the
+    // pools below would leave @Async (and async MVC requests) on an unbounded SimpleAsyncTaskExecutor.
+    // Built the way Boot would: a virtual thread per task when spring.threads.virtual.enabled is
+    // set, otherwise the bounded spring.task.execution.pool
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+        AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public AsyncTaskExecutor applicationTaskExecutor(Environment environment,
+                                                     ThreadPoolTaskExecutorBuilder threadPoolTaskExecutorBuilder,
+                                                     SimpleAsyncTaskExecutorBuilder simpleAsyncTaskExecutorBuilder) {
+        if (Threading.VIRTUAL.isActive(environment)) {
+            return simpleAsyncTaskExecutorBuilder.build();
+        }
+        return threadPoolTaskExecutorBuilder.build();
+    }
+
+    // Import jobs mostly wait on the database, the search service and Python, so a virtual
+    // thread per job is enough; ImportJobService bounds how many run at the same time
+    @Bean(destroyMethod = "close")
+    public ExecutorService importExecutor() {
+        return Executors.newVirtualThreadPerTaskExecutor();
+    }
+
+    // Timetable generation is pure CPU work; all requests share one pool sized to the cores
+    // and each one is bounded by its own time budget
+    @Bean(destroyMethod = "shutdownNow")
+    public ForkJoinPool timetableSolverPool(@Value("${schedule.generator.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    // Streaming searches compute for up to their time budget without yielding, so each gets a
+    // platform thread instead of holding a carrier that virtual request threads need; the
+    // stream slots in TimetableStreamService keep the number in use at max-concurrent
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService timetableStreamExecutor(@Value("${schedule.generator.stream.max-concurrent:8}") int maxConcurrent) {
+        return Executors.newFixedThreadPool(maxConcurrent, Thread.ofPlatform().name("timetable-stream-", 0).daemon().factory());
+    }
+
+    // BCrypt for admin logins and account creation: a few threads and a short queue, so a burst
+    // of logins cannot take the cores the student endpoints need; past that tasks are rejected
+    // (AbortPolicy) and the caller answers 429 at once
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor passwordHashingExecutor(@Value("${admin.password.threads:0}") int threads,
+                                                      @Value("${admin.password.queue-capacity:16}") int queueCapacity) {
+        int size = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new ThreadPoolExecutor(size, size, 0, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            Thread.ofPlatform().name("password-hashing-", 0).daemon().factory(),
+            new ThreadPoolExecutor.AbortPolicy());
+    }
+}
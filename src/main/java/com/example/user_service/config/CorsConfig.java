@@ -29,6 +29,9 @@ public class CorsConfig {
         // Allow headers
         config.setAllowedHeaders(Arrays.asList("*"));
         
+        // Paged listings hand out the next page's cursor in a header
+        config.setExposedHeaders(Arrays.asList("X-Next-Cursor"));
+        
         // Allow methods
         config.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS", "PATCH"));
         
@@ -1,12 +1,18 @@
 package com.example.user_service.config;
 
 import com.example.user_service.entity.Admin;
+import com.example.user_service.entity.Schedule;
+import com.example.user_service.parser.TimeSlotCodec;
 import com.example.user_service.repository.AdminRepository;
+import com.example.user_service.repository.ScheduleRepository;
+import com.example.user_service.service.DatasetVersionService;
+import com.example.user_service.service.PasswordHashingService;
+import com.example.user_service.service.UserScheduleService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Component;
+import java.util.List;
 
 @Component
 @RequiredArgsConstructor
@@ -14,11 +20,33 @@ import org.springframework.stereotype.Component;
 public class DataInitializer implements CommandLineRunner {
 
     private final AdminRepository adminRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final DatasetVersionService datasetVersionService;
+    private final ScheduleRepository scheduleRepository;
+    private final UserScheduleService userScheduleService;
+    private final PasswordHashingService passwordHashingService;
 
     @Override
     public void run(String... args) {
         initializeDefaultAdmin();
+        initializeScheduleDataset();
+        backfillScheduleTimeSlots();
+        // Saved schedules stored as full JSON before section references existed
+        userScheduleService.migrateStorage();
+    }
+
+    private void initializeScheduleDataset() {
+        // Schedules imported before dataset versioning become the first active version
+        datasetVersionService.adoptUnversionedRows(DatasetVersionService.SCHEDULES);
+    }
+
+    private void backfillScheduleTimeSlots() {
+        // Rows imported before the day/period/week mask columns existed
+        List<Schedule> missing = scheduleRepository.findByPeriodMaskIsNull();
+        if (!missing.isEmpty()) {
+            missing.forEach(TimeSlotCodec::apply);
+            scheduleRepository.saveAll(missing);
+            log.info("Computed time slot masks for {} existing schedules", missing.size());
+        }
     }
 
     private void initializeDefaultAdmin() {
@@ -28,7 +56,7 @@ public class DataInitializer implements CommandLineRunner {
             
             Admin defaultAdmin = new Admin();
             defaultAdmin.setUsername("admin");
-            defaultAdmin.setPassword(passwordEncoder.encode("admin123"));
+            defaultAdmin.setPassword(passwordHashingService.encode("admin123"));
             defaultAdmin.setFullName("System Administrator");
             defaultAdmin.setEmail("admin@example.com");
             defaultAdmin.setIsActive(true);
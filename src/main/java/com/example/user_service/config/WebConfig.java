@@ -0,0 +1,23 @@
+package com.example.user_service.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfig implements WebMvcConfigurer {
+
+    private final CatalogETagInterceptor catalogETagInterceptor;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(catalogETagInterceptor)
+            .addPathPatterns("/api/student/**", "/api/admin/schedules")
+            // Per-user data that changes without an import; a catalog ETag would let a client
+            // (or a shared cache) keep serving a timetable list or detail after a save
+            .excludePathPatterns("/api/student/schedules/my-schedules/**",
+                "/api/student/schedules/{scheduleId:\\d+}");
+    }
+}
@@ -4,7 +4,12 @@ import com.example.user_service.dto.AdminLoginRequest;
 import com.example.user_service.dto.AdminResponse;
 import com.example.user_service.dto.CreateAdminRequest;
 import com.example.user_service.service.AdminService;
+import com.example.user_service.service.LoginThrottledException;
+import com.example.user_service.service.PasswordHashingBusyException;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import java.util.List;
@@ -17,10 +22,14 @@ public class AdminAuthController {
     private final AdminService adminService;
 
     @PostMapping("/login")
-    public ResponseEntity<?> login(@RequestBody AdminLoginRequest request) {
+    public ResponseEntity<?> login(@RequestBody AdminLoginRequest request, HttpServletRequest httpRequest) {
         try {
-            AdminResponse admin = adminService.login(request);
+            AdminResponse admin = adminService.login(request, httpRequest.getRemoteAddr());
             return ResponseEntity.ok(admin);
+        } catch (LoginThrottledException e) {
+            return tooManyRequests(e.getMessage(), e.getRetryAfterSeconds());
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e.getMessage(), 1);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -31,6 +40,8 @@ public class AdminAuthController {
         try {
             AdminResponse admin = adminService.createAdmin(request);
             return ResponseEntity.ok(admin);
+        } catch (PasswordHashingBusyException e) {
+            return tooManyRequests(e.getMessage(), 1);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -70,4 +81,10 @@ public class AdminAuthController {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
+
+    private static ResponseEntity<String> tooManyRequests(String message, long retryAfterSeconds) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+            .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+            .body(message);
+    }
 }
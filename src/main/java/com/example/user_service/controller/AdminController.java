@@ -1,72 +1,216 @@
 package com.example.user_service.controller;
 
 import com.example.user_service.dto.CourseImportResponse;
+import com.example.user_service.dto.ImportJobStatus;
+import com.example.user_service.dto.ImportResult;
+import com.example.user_service.dto.ScheduleFilter;
 import com.example.user_service.dto.ScheduleImportResponse;
+import com.example.user_service.dto.StatisticsDTO;
+import com.example.user_service.entity.DatasetVersion;
 import com.example.user_service.entity.Schedule;
 import com.example.user_service.repository.ScheduleRepository;
-import com.example.user_service.service.CourseImportService;
-import com.example.user_service.service.ScheduleImportService;
+import com.example.user_service.repository.ScheduleRepositoryCustom;
+import com.example.user_service.repository.UserScheduleSectionRepository;
+import com.example.user_service.service.CourseSearchIndex;
+import com.example.user_service.service.DatasetVersionService;
+import com.example.user_service.service.ImportJob;
+import com.example.user_service.service.ImportJobService;
+import com.example.user_service.service.StatisticsService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import java.net.URI;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @RestController
 @RequestMapping("/api/admin")
 @RequiredArgsConstructor
 public class AdminController {
 
-    private final ScheduleImportService scheduleImportService;
-    private final CourseImportService courseImportService;
+    private static final int DEFAULT_PAGE_SIZE = 200;
+    private static final int MAX_PAGE_SIZE = 1000;
+
+    private final ImportJobService importJobService;
     private final ScheduleRepository scheduleRepository;
+    private final DatasetVersionService datasetVersionService;
+    private final CourseSearchIndex courseSearchIndex;
+    private final StatisticsService statisticsService;
+    private final UserScheduleSectionRepository userScheduleSectionRepository;
+
+    // How long the legacy import endpoints hold the request before answering 202 instead
+    @Value("${import.jobs.inline-wait-ms:5000}")
+    private long inlineWaitMillis;
 
+    // Goes through the job queue too, so it is serialized with background imports. Small files
+    // are answered inline as before; a longer import turns into a 202 like /imports/schedules
     @PostMapping("/schedules/import")
-    public ResponseEntity<ScheduleImportResponse> importSchedule(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importSchedule(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String mode) {
         try {
-            int count = scheduleImportService.importSchedule(file);
-            return ResponseEntity.ok(new ScheduleImportResponse(true, "Import successful", count));
+            ImportJob job = importJobService.submitScheduleImport(file, mode);
+            ImportResult result = awaitResult(job);
+            if (result == null) {
+                return accepted(job);
+            }
+            return ResponseEntity.ok(new ScheduleImportResponse(true, "Import successful",
+                result.getRecordsImported(), result.getRowsPerSecond(),
+                result.getAdded(), result.getChanged(), result.getRemoved()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body(new ScheduleImportResponse(false, "Import failed: " + e.getMessage(), 0));
+                .body(new ScheduleImportResponse(false, "Import failed: " + e.getMessage(), 0, 0, 0, 0, 0));
         }
     }
 
     @PostMapping("/courses/import")
-    public ResponseEntity<CourseImportResponse> importCourses(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<?> importCourses(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String mode) {
         try {
-            int count = courseImportService.importCourses(file);
-            return ResponseEntity.ok(new CourseImportResponse(true, "Import successful", count));
+            ImportJob job = importJobService.submitCourseImport(file, mode);
+            ImportResult result = awaitResult(job);
+            if (result == null) {
+                return accepted(job);
+            }
+            return ResponseEntity.ok(new CourseImportResponse(true, "Import successful",
+                result.getRecordsImported(), result.getRowsPerSecond(),
+                result.getAdded(), result.getChanged(), result.getRemoved()));
         } catch (Exception e) {
             return ResponseEntity.badRequest()
-                .body(new CourseImportResponse(false, "Import failed: " + e.getMessage(), 0));
+                .body(new CourseImportResponse(false, "Import failed: " + e.getMessage(), 0, 0, 0, 0, 0));
+        }
+    }
+
+    @PostMapping("/imports/schedules")
+    public ResponseEntity<?> submitScheduleImport(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String mode) {
+        try {
+            return accepted(importJobService.submitScheduleImport(file, mode));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Import failed: " + e.getMessage());
+        }
+    }
+
+    @PostMapping("/imports/courses")
+    public ResponseEntity<?> submitCourseImport(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) String mode) {
+        try {
+            return accepted(importJobService.submitCourseImport(file, mode));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Import failed: " + e.getMessage());
         }
     }
 
+    @GetMapping("/imports")
+    public ResponseEntity<List<ImportJobStatus>> getImportJobs() {
+        return ResponseEntity.ok(importJobService.getRecent());
+    }
+
+    @GetMapping("/imports/{id}")
+    public ResponseEntity<ImportJobStatus> getImportJob(@PathVariable String id) {
+        return importJobService.getStatus(id)
+            .map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    // Keyset pages ordered by id: pass a page's X-Next-Cursor as afterId to get the next one.
+    // fields=courseName,instructor,... selects only those columns; id is always included.
     @GetMapping("/schedules")
-    public ResponseEntity<List<Schedule>> getAllSchedules(
-            @RequestParam(required = false) String courseName) {
-        if (courseName != null && !courseName.isEmpty()) {
-            return ResponseEntity.ok(scheduleRepository.findByCourseNameContainingIgnoreCase(courseName));
+    public ResponseEntity<?> getAllSchedules(
+            ScheduleFilter filter,
+            @RequestParam(required = false) Long afterId,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) List<String> fields) {
+        long version = datasetVersionService.activeVersion(DatasetVersionService.SCHEDULES);
+        int pageSize = limit == null || limit <= 0 ? DEFAULT_PAGE_SIZE : Math.min(limit, MAX_PAGE_SIZE);
+        if (filter.getCourseName() != null && !filter.getCourseName().isBlank()) {
+            // Resolved in memory, diacritic-insensitive; the query then matches exact names
+            Set<String> courseNames = courseSearchIndex.matchingCourseNames(filter.getCourseName());
+            if (courseNames.isEmpty()) {
+                return ResponseEntity.ok(List.of());
+            }
+            filter.setCourseNames(courseNames);
+        }
+
+        if (fields == null || fields.isEmpty()) {
+            List<Schedule> page = scheduleRepository.findPage(version, filter, afterId, pageSize);
+            Long next = page.size() == pageSize ? page.get(page.size() - 1).getId() : null;
+            return withCursor(next).body(page);
         }
-        return ResponseEntity.ok(scheduleRepository.findAll());
+
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.strip();
+            if (!ScheduleRepositoryCustom.PAGE_FIELDS.contains(name)) {
+                return ResponseEntity.badRequest().body("Unknown field: " + name);
+            }
+            selected.add(name);
+        }
+        List<Map<String, Object>> page = scheduleRepository.findPage(version, filter, afterId, pageSize,
+            List.copyOf(selected));
+        Long next = page.size() == pageSize ? (Long) page.get(page.size() - 1).get("id") : null;
+        return withCursor(next).body(page);
     }
 
-    @GetMapping("/statistics")
-    public ResponseEntity<?> getStatistics() {
+    // Saved timetables that picked this section, in this or any earlier import of it
+    @GetMapping("/schedules/{id}/saved-schedules")
+    public ResponseEntity<List<Long>> getSavedSchedulesWithSection(@PathVariable Long id) {
+        return scheduleRepository.findById(id)
+            .map(schedule -> ResponseEntity.ok(userScheduleSectionRepository.findUserScheduleIdsByRowKey(schedule.getRowKey())))
+            .orElse(ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/schedules/versions")
+    public ResponseEntity<List<DatasetVersion>> getScheduleVersions() {
+        return ResponseEntity.ok(datasetVersionService.getVersions(DatasetVersionService.SCHEDULES));
+    }
+
+    @PostMapping("/schedules/versions/rollback")
+    public ResponseEntity<?> rollbackSchedules() {
         try {
-            long totalSchedules = scheduleRepository.count();
-            long totalCourses = scheduleRepository.countDistinctCourseName();
-            // For now, return 0 for students as we don't have user count yet
-            long totalStudents = 0;
-            
-            return ResponseEntity.ok(new java.util.HashMap<String, Long>() {{
-                put("totalSchedules", totalSchedules);
-                put("totalCourses", totalCourses);
-                put("totalStudents", totalStudents);
-            }});
+            long version = datasetVersionService.rollback(DatasetVersionService.SCHEDULES);
+            return ResponseEntity.ok("Rolled back to version " + version);
         } catch (Exception e) {
-            return ResponseEntity.badRequest().body("Failed to get statistics: " + e.getMessage());
+            return ResponseEntity.badRequest().body("Rollback failed: " + e.getMessage());
+        }
+    }
+
+    // Precomputed by StatisticsService; cheap enough to poll
+    @GetMapping("/statistics")
+    public ResponseEntity<StatisticsDTO> getStatistics() {
+        return ResponseEntity.ok(statisticsService.getStatistics());
+    }
+
+    private static ResponseEntity.BodyBuilder withCursor(Long next) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        return next != null ? response.header("X-Next-Cursor", next.toString()) : response;
+    }
+
+    private ResponseEntity<ImportJobStatus> accepted(ImportJob job) {
+        return ResponseEntity.accepted()
+            .location(URI.create("/api/admin/imports/" + job.getId()))
+            .body(job.toStatus());
+    }
+
+    // null when the job is still running after inline-wait-ms; the job carries on either way
+    private ImportResult awaitResult(ImportJob job) throws Exception {
+        try {
+            return job.getCompletion().get(inlineWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return null;
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
         }
     }
 }
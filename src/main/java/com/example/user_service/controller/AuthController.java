@@ -1,18 +1,14 @@
 package com.example.user_service.controller;
 
 import com.example.user_service.entity.User;
+import com.example.user_service.service.GoogleTokenVerificationService;
 import com.example.user_service.service.UserService;
 import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
-import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
-import com.google.api.client.http.javanet.NetHttpTransport;
-import com.google.api.client.json.gson.GsonFactory;
 import lombok.RequiredArgsConstructor;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.oauth2.core.user.OAuth2User;
 import org.springframework.web.bind.annotation.*;
-import java.util.Collections;
 import java.util.Map;
 
 @RestController
@@ -21,9 +17,7 @@ import java.util.Map;
 public class AuthController {
 
     private final UserService userService;
-    
-    @Value("${spring.security.oauth2.client.registration.google.client-id:}")
-    private String googleClientId;
+    private final GoogleTokenVerificationService googleTokenVerificationService;
 
     @GetMapping("/user")
     public ResponseEntity<User> getCurrentUser(@AuthenticationPrincipal OAuth2User principal) {
@@ -60,21 +54,13 @@ public class AuthController {
             }
 
             // Verify Google ID token
-            GoogleIdTokenVerifier verifier = new GoogleIdTokenVerifier.Builder(
-                new NetHttpTransport(), 
-                GsonFactory.getDefaultInstance()
-            )
-            .setAudience(Collections.singletonList(googleClientId))
-            .build();
-
-            GoogleIdToken idToken = verifier.verify(credential);
+            GoogleIdToken.Payload googlePayload = googleTokenVerificationService.verify(credential);
             
-            if (idToken == null) {
+            if (googlePayload == null) {
                 return ResponseEntity.status(401)
                     .body(Map.of("message", "Invalid credential"));
             }
 
-            GoogleIdToken.Payload googlePayload = idToken.getPayload();
             String email = googlePayload.getEmail();
             String name = (String) googlePayload.get("name");
             String picture = (String) googlePayload.get("picture");
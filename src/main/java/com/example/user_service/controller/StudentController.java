@@ -1,80 +1,202 @@
 package com.example.user_service.controller;
 
+import com.example.user_service.dto.GenerateScheduleRequest;
+import com.example.user_service.dto.ScheduleConflict;
+import com.example.user_service.dto.ScheduleDTO;
+import com.example.user_service.dto.SearchSuggestion;
 import com.example.user_service.entity.*;
 import com.example.user_service.repository.*;
-import lombok.RequiredArgsConstructor;
+import com.example.user_service.service.CatalogCache;
+import com.example.user_service.service.CourseSearchIndex;
+import com.example.user_service.service.DatasetVersionService;
+import com.example.user_service.service.ScheduleConflictException;
+import com.example.user_service.service.ScheduleLookupIndex;
+import com.example.user_service.service.TimetableGenerator;
+import com.example.user_service.service.TimetableStreamService;
+import com.example.user_service.service.TooManyStreamsException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.zip.GZIPInputStream;
 
 @RestController
 @RequestMapping("/api/student")
-@RequiredArgsConstructor
 public class StudentController {
 
-    private final AcademicYearRepository academicYearRepository;
-    private final SemesterRepository semesterRepository;
-    private final CohortRepository cohortRepository;
-    private final ClassRepository classRepository;
-    private final CourseRepository courseRepository;
+    private static final int MAX_SUGGESTIONS = 50;
+    private static final int DEFAULT_SUMMARY_PAGE_SIZE = 20;
+    private static final int MAX_SUMMARY_PAGE_SIZE = 100;
+
+    private final CatalogCache catalogCache;
     private final ScheduleRepository scheduleRepository;
     private final com.example.user_service.service.UserScheduleService userScheduleService;
+    private final DatasetVersionService datasetVersionService;
+    private final ScheduleLookupIndex scheduleLookupIndex;
+    private final TimetableGenerator timetableGenerator;
+    private final TimetableStreamService timetableStreamService;
+    private final CourseSearchIndex courseSearchIndex;
+    private final boolean lookupIndexEnabled;
+    private final Timer indexLookupTimer;
+    private final Timer databaseLookupTimer;
+
+    public StudentController(CatalogCache catalogCache,
+                             ScheduleRepository scheduleRepository,
+                             com.example.user_service.service.UserScheduleService userScheduleService,
+                             DatasetVersionService datasetVersionService,
+                             ScheduleLookupIndex scheduleLookupIndex,
+                             TimetableGenerator timetableGenerator,
+                             TimetableStreamService timetableStreamService,
+                             CourseSearchIndex courseSearchIndex,
+                             MeterRegistry meterRegistry,
+                             @Value("${schedule.lookup.index-enabled:true}") boolean lookupIndexEnabled) {
+        this.catalogCache = catalogCache;
+        this.scheduleRepository = scheduleRepository;
+        this.userScheduleService = userScheduleService;
+        this.datasetVersionService = datasetVersionService;
+        this.scheduleLookupIndex = scheduleLookupIndex;
+        this.timetableGenerator = timetableGenerator;
+        this.timetableStreamService = timetableStreamService;
+        this.courseSearchIndex = courseSearchIndex;
+        this.lookupIndexEnabled = lookupIndexEnabled;
+        // p99 of both paths is published so the index can be compared against the queries
+        this.indexLookupTimer = lookupTimer(meterRegistry, "index");
+        this.databaseLookupTimer = lookupTimer(meterRegistry, "database");
+    }
+
+    // The browse endpoints below read the in-memory catalog snapshot, not MySQL
 
     @GetMapping("/academic-years")
     public ResponseEntity<List<AcademicYear>> getAcademicYears() {
-        return ResponseEntity.ok(academicYearRepository.findAll());
+        return ResponseEntity.ok(catalogCache.get().getAcademicYears());
     }
 
     @GetMapping("/semesters")
     public ResponseEntity<List<Semester>> getSemesters(@RequestParam Long academicYearId) {
-        AcademicYear academicYear = academicYearRepository.findById(academicYearId)
-            .orElseThrow(() -> new RuntimeException("Academic year not found"));
-        return ResponseEntity.ok(semesterRepository.findByAcademicYear(academicYear));
+        return ResponseEntity.ok(found(catalogCache.get().getSemesters(academicYearId), "Academic year not found"));
     }
 
     @GetMapping("/cohorts")
     public ResponseEntity<List<Cohort>> getCohorts(@RequestParam Long semesterId) {
-        Semester semester = semesterRepository.findById(semesterId)
-            .orElseThrow(() -> new RuntimeException("Semester not found"));
-        return ResponseEntity.ok(cohortRepository.findBySemester(semester));
+        return ResponseEntity.ok(found(catalogCache.get().getCohorts(semesterId), "Semester not found"));
     }
 
     @GetMapping("/classes")
     public ResponseEntity<List<ClassEntity>> getClasses(@RequestParam Long cohortId) {
-        Cohort cohort = cohortRepository.findById(cohortId)
-            .orElseThrow(() -> new RuntimeException("Cohort not found"));
-        return ResponseEntity.ok(classRepository.findByCohort(cohort));
+        return ResponseEntity.ok(found(catalogCache.get().getClasses(cohortId), "Cohort not found"));
     }
 
     @GetMapping("/courses")
     public ResponseEntity<List<Course>> getCourses(@RequestParam Long classId) {
-        ClassEntity classEntity = classRepository.findById(classId)
-            .orElseThrow(() -> new RuntimeException("Class not found"));
-        return ResponseEntity.ok(courseRepository.findByClassEntity(classEntity));
+        return ResponseEntity.ok(found(catalogCache.get().getCourses(classId), "Class not found"));
+    }
+
+    // Whole semester tree in one response, served from the pre-compressed snapshot payload
+    @GetMapping("/catalog/{semesterId}")
+    public ResponseEntity<byte[]> getCatalog(
+            @PathVariable Long semesterId,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) throws IOException {
+        byte[] gzipped = catalogCache.get().getSemesterPayload(semesterId);
+        if (gzipped == null) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(gzipped);
+        }
+        // Rare: clients that cannot take gzip get it inflated on the fly
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzipped))) {
+            return response.body(in.readAllBytes());
+        }
+    }
+
+    // Courses and instructors of the active schedules, matched without diacritics in memory
+    @GetMapping("/search/autocomplete")
+    public ResponseEntity<List<SearchSuggestion>> autocomplete(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(courseSearchIndex.autocomplete(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+    }
+
+    @GetMapping("/search/fuzzy")
+    public ResponseEntity<List<SearchSuggestion>> fuzzySearch(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(courseSearchIndex.fuzzy(q, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
     }
 
     @GetMapping("/schedules/by-course")
     public ResponseEntity<List<Schedule>> getSchedulesByCourse(
             @RequestParam String courseName,
             @RequestParam(required = false) String subtopic) {
+        if (lookupIndexEnabled) {
+            return ResponseEntity.ok(indexLookupTimer.record(() -> scheduleLookupIndex.find(courseName, subtopic)));
+        }
+        return ResponseEntity.ok(databaseLookupTimer.record(() -> findSchedulesByCourse(courseName, subtopic)));
+    }
+
+    private List<Schedule> findSchedulesByCourse(String courseName, String subtopic) {
         List<Schedule> schedules;
+        long version = datasetVersionService.activeVersion(DatasetVersionService.SCHEDULES);
         
         if (subtopic != null && !subtopic.isEmpty() && !"null".equalsIgnoreCase(subtopic)) {
             // Query for schedules with specific subtopic (not empty)
-            schedules = scheduleRepository.findByCourseNameAndSubtopicNotEmpty(courseName, subtopic);
+            schedules = scheduleRepository.findByCourseNameAndSubtopicNotEmpty(version, courseName, subtopic);
         } else {
             // Query for schedules with empty subtopic
-            schedules = scheduleRepository.findByCourseNameAndSubtopicEmpty(courseName);
+            schedules = scheduleRepository.findByCourseNameAndSubtopicEmpty(version, courseName);
         }
         
-        return ResponseEntity.ok(schedules);
+        return schedules;
+    }
+
+    @PostMapping("/schedules/conflicts")
+    public ResponseEntity<List<ScheduleConflict>> checkConflicts(@RequestBody List<ScheduleDTO> schedules) {
+        return ResponseEntity.ok(userScheduleService.findConflicts(schedules));
+    }
+
+    @PostMapping("/schedules/generate")
+    public ResponseEntity<?> generateSchedules(@RequestBody GenerateScheduleRequest request) {
+        try {
+            return ResponseEntity.ok(timetableGenerator.generate(request));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Failed to generate schedules: " + e.getMessage());
+        }
+    }
+
+    // Same search, but every timetable is pushed as an SSE event as soon as it is found
+    @PostMapping(value = "/schedules/generate/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamSchedules(
+            @RequestBody GenerateScheduleRequest request,
+            @RequestParam(required = false) Integer maxResults) {
+        try {
+            return ResponseEntity.ok(timetableStreamService.open(request, maxResults));
+        } catch (TooManyStreamsException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
     }
 
     @PostMapping("/schedules/save")
-    public ResponseEntity<?> saveSchedule(@RequestBody com.example.user_service.dto.SaveScheduleRequest request) {
+    public ResponseEntity<?> saveSchedule(
+            @RequestBody com.example.user_service.dto.SaveScheduleRequest request,
+            @RequestParam(required = false) Boolean strict) {
         try {
-            UserSchedule saved = userScheduleService.saveSchedule(request);
+            UserSchedule saved = userScheduleService.saveSchedule(request, strict);
             return ResponseEntity.ok(saved);
+        } catch (ScheduleConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getConflicts());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to save schedule: " + e.getMessage());
         }
@@ -92,6 +214,43 @@ public class StudentController {
         }
     }
 
+    // Name, semester, date and size only; the next page is requested with ?cursor=<X-Next-Cursor>
+    @GetMapping("/schedules/my-schedules/summary")
+    public ResponseEntity<List<UserScheduleSummary>> getMyScheduleSummaries(
+            @RequestParam Long userId,
+            @RequestParam(required = false) Long semesterId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + DEFAULT_SUMMARY_PAGE_SIZE) int limit) {
+        try {
+            LocalDateTime beforeCreatedAt = null;
+            Long beforeId = null;
+            if (cursor != null && !cursor.isBlank()) {
+                int separator = cursor.lastIndexOf('_');
+                beforeCreatedAt = LocalDateTime.parse(cursor.substring(0, separator));
+                beforeId = Long.parseLong(cursor.substring(separator + 1));
+            }
+            int pageSize = Math.max(1, Math.min(limit, MAX_SUMMARY_PAGE_SIZE));
+            List<UserScheduleSummary> page = userScheduleService.getUserScheduleSummaries(
+                userId, semesterId, beforeCreatedAt, beforeId, pageSize);
+            if (page.size() < pageSize) {
+                return ResponseEntity.ok(page);
+            }
+            UserScheduleSummary last = page.get(page.size() - 1);
+            return ResponseEntity.ok().header("X-Next-Cursor", last.getCreatedAt() + "_" + last.getId()).body(page);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @GetMapping("/schedules/{scheduleId}")
+    public ResponseEntity<UserSchedule> getSchedule(@PathVariable Long scheduleId) {
+        try {
+            return ResponseEntity.ok(userScheduleService.getSchedule(scheduleId));
+        } catch (Exception e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
     @DeleteMapping("/schedules/{scheduleId}")
     public ResponseEntity<String> deleteSchedule(@PathVariable Long scheduleId) {
         try {
@@ -105,12 +264,29 @@ public class StudentController {
     @PutMapping("/schedules/{scheduleId}")
     public ResponseEntity<?> updateSchedule(
             @PathVariable Long scheduleId,
-            @RequestBody com.example.user_service.dto.SaveScheduleRequest request) {
+            @RequestBody com.example.user_service.dto.SaveScheduleRequest request,
+            @RequestParam(required = false) Boolean strict) {
         try {
-            UserSchedule updated = userScheduleService.updateSchedule(scheduleId, request);
+            UserSchedule updated = userScheduleService.updateSchedule(scheduleId, request, strict);
             return ResponseEntity.ok(updated);
+        } catch (ScheduleConflictException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getConflicts());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body("Failed to update schedule: " + e.getMessage());
         }
     }
+
+    private <T> List<T> found(List<T> children, String message) {
+        if (children == null) {
+            throw new RuntimeException(message);
+        }
+        return children;
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String path) {
+        return Timer.builder("schedules.by_course.lookup")
+            .tag("path", path)
+            .publishPercentiles(0.5, 0.99)
+            .register(meterRegistry);
+    }
 }
@@ -0,0 +1,30 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// Courses to place plus constraints. daysOff, noMorning, language and location are hard
+// filters; preferredInstructors only raises the score. Days use the dayOfWeek wording ("Thứ 2").
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerateScheduleRequest {
+    private List<CourseSelection> courses;
+    private List<String> daysOff;
+    private boolean noMorning;
+    private List<String> preferredInstructors;
+    private String language;
+    private String location;
+    private Integer limit;
+    private Long timeBudgetMs;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseSelection {
+        private String courseName;
+        private String subtopic;
+    }
+}
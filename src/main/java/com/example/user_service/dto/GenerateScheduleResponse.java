@@ -0,0 +1,19 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// complete is false when the time budget ran out before the search space was exhausted;
+// the timetables are then the best ones found so far
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GenerateScheduleResponse {
+    private List<GeneratedTimetable> timetables;
+    private List<String> unavailableCourses;
+    private long explored;
+    private boolean complete;
+    private long elapsedMs;
+}
@@ -0,0 +1,18 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// One conflict-free combination; schedules can be posted back to /schedules/save as is
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class GeneratedTimetable {
+    private int score;
+    private int daysUsed;
+    private int gapPeriods;
+    private int preferredInstructors;
+    private List<ScheduleDTO> schedules;
+}
@@ -0,0 +1,32 @@
+package com.example.user_service.dto;
+
+import lombok.Data;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class ImportJobStatus {
+
+    public enum Stage {
+        QUEUED,
+        WAITING_FOR_DATASET,
+        PARSING,
+        LOADING,
+        SWITCHING,
+        COMPLETED,
+        FAILED
+    }
+
+    private String id;
+    private String dataset;
+    private String fileName;
+    private String mode;
+    private Stage stage;
+    private long rowsProcessed;
+    private double rowsPerSecond;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private List<String> errors;
+    private ImportResult result;
+}
@@ -0,0 +1,18 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private int recordsImported;
+    private long elapsedMillis;
+    private double rowsPerSecond;
+    // Filled by incremental imports; a full import reports every row as added
+    private int added;
+    private int changed;
+    private int removed;
+}
@@ -0,0 +1,23 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// Two sections of one timetable that meet at the same time.
+// Indexes point into the submitted schedules list; an empty weeks list means all weeks.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleConflict {
+    private int firstIndex;
+    private int secondIndex;
+    private String firstCourse;
+    private Integer firstClassNumber;
+    private String secondCourse;
+    private Integer secondClassNumber;
+    private String dayOfWeek;
+    private List<Integer> periods;
+    private List<Integer> weeks;
+}
@@ -22,4 +22,6 @@ public class ScheduleDTO {
     private String roomNumber;
     private String weeks;
     private Integer capacity;
+    // Schedule.rowKey of the imported row this was read from; null in timetables saved before it was sent
+    private String rowKey;
 }
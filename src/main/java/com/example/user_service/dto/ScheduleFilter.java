@@ -0,0 +1,22 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.Set;
+
+// Optional filters of the admin schedule listing, bound from query parameters.
+// courseName and instructor match a fragment, the rest match the whole value.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ScheduleFilter {
+    private String courseName;
+    private String instructor;
+    private String dayOfWeek;
+    private String location;
+    private String major;
+    private String language;
+    // Exact course names; when set it replaces the courseName fragment
+    private Set<String> courseNames;
+}
@@ -11,4 +11,8 @@ public class ScheduleImportResponse {
     private boolean success;
     private String message;
     private int recordsImported;
+    private double rowsPerSecond;
+    private int added;
+    private int changed;
+    private int removed;
 }
@@ -0,0 +1,25 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A course (courseName + subtopic) or an instructor from the active schedules.
+// sections counts the schedule rows behind it; score is the trigram similarity (fuzzy only).
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchSuggestion {
+
+    public enum Type {
+        COURSE,
+        INSTRUCTOR
+    }
+
+    private Type type;
+    private String courseName;
+    private String subtopic;
+    private String instructor;
+    private int sections;
+    private double score;
+}
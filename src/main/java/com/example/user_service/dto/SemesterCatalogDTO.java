@@ -0,0 +1,48 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.util.List;
+
+// Whole semester tree in one document; children carry ids but not their parent chain
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SemesterCatalogDTO {
+    private Long semesterId;
+    private String semesterName;
+    private Long academicYearId;
+    private String yearName;
+    private List<CohortNode> cohorts;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CohortNode {
+        private Long id;
+        private String cohortCode;
+        private List<ClassNode> classes;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ClassNode {
+        private Long id;
+        private String classCode;
+        private List<CourseNode> courses;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CourseNode {
+        private Long id;
+        private String courseName;
+        private String subtopic;
+        private Double theoryCredits;
+        private Double practicalCredits;
+        private Double totalCredits;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.user_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// Admin dashboard figures. Schedule figures describe the active dataset version as of
+// computedAt; users and saved timetables are live counters.
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatisticsDTO {
+    private long totalSchedules;
+    private long totalCourses;
+    private long totalSections;
+    private long totalSeats;
+    private long totalInstructors;
+    private long totalStudents;
+    private long totalSavedTimetables;
+    private Map<String, Integer> sectionsPerCourse;
+    private Map<String, Long> seatsPerCourse;
+    private Map<String, Long> seatsPerMajor;
+    private Map<String, Long> seatsPerLocation;
+    private Map<String, Integer> sectionsPerInstructor;
+    private LocalDateTime computedAt;
+}
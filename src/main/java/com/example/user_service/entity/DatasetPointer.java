@@ -0,0 +1,27 @@
+package com.example.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// One row per dataset; flipping active_version is the switch-over
+@Entity
+@Table(name = "dataset_pointers")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetPointer {
+    @Id
+    private String dataset;
+
+    @Column(name = "active_version")
+    private Long activeVersion;
+
+    @Column(name = "previous_version")
+    private Long previousVersion;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,48 @@
+package com.example.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "dataset_versions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class DatasetVersion {
+
+    public enum Status {
+        LOADING,    // import still writing rows
+        ACTIVE,     // served to readers
+        READY,      // fully loaded, kept for rollback
+        FAILED,     // import aborted, rows are garbage
+        COLLECTED   // rows deleted
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String dataset;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Status status;
+
+    @Column(name = "row_count")
+    private Integer rowCount;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "activated_at")
+    private LocalDateTime activatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -6,7 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "schedules")
+@Table(name = "schedules", indexes = {
+    @Index(name = "idx_schedules_version_id", columnList = "dataset_version, id"),
+    @Index(name = "idx_schedules_version_course", columnList = "dataset_version, course_name"),
+    @Index(name = "idx_schedules_version_row_key", columnList = "dataset_version, row_key")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -53,4 +57,23 @@ public class Schedule {
 
     @Column(name = "capacity")
     private Integer capacity;
+
+    @Column(name = "dataset_version")
+    private Long datasetVersion;
+
+    @Column(name = "row_key", length = 40)
+    private String rowKey;
+
+    @Column(name = "content_hash", length = 40)
+    private String contentHash;
+
+    // Parsed from dayOfWeek / periods / weeks at import, see TimeSlotCodec
+    @Column(name = "day_index")
+    private Integer dayIndex;
+
+    @Column(name = "period_mask")
+    private Integer periodMask;
+
+    @Column(name = "week_mask")
+    private Long weekMask;
 }
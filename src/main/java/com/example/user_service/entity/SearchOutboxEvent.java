@@ -0,0 +1,54 @@
+package com.example.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Pending search-index change, written in the same transaction as the catalog rows
+// and deleted once the search service has accepted it
+@Entity
+@Table(name = "search_outbox", indexes = {
+    @Index(name = "idx_search_outbox_next_attempt", columnList = "next_attempt_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchOutboxEvent {
+
+    public enum Type {
+        INDEX,  // add {courseName, subtopic}
+        CLEAR   // drop every document
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false, length = 10)
+    private Type type;
+
+    @Column(name = "course_name")
+    private String courseName;
+
+    private String subtopic;
+
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
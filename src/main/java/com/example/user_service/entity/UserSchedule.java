@@ -1,17 +1,29 @@
 package com.example.user_service.entity;
 
+import com.example.user_service.dto.ScheduleConflict;
+import com.example.user_service.parser.ScheduleSnapshotCodec;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
-@Table(name = "user_schedules")
+@Table(name = "user_schedules", indexes = {
+    @Index(name = "idx_user_schedules_user_created", columnList = "user_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class UserSchedule {
+    // FULL: schedule holds ScheduleDTO objects (rows saved before normalization have no format).
+    // COMPACT: schedule holds ScheduleSnapshotCodec arrays and the sections live in user_schedule_sections.
+    public enum Format { FULL, COMPACT }
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -26,9 +38,18 @@ public class UserSchedule {
     @Column(name = "academic_year")
     private String academicYear;
 
+    @JsonIgnore
     @Column(name = "schedule", columnDefinition = "JSON", nullable = false)
     private String schedule;
 
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    @Column(name = "storage_format", length = 10)
+    private Format storageFormat;
+
+    @Column(name = "section_count")
+    private Integer sectionCount;
+
     @Column(name = "prompt", columnDefinition = "TEXT")
     private String prompt;
 
@@ -38,6 +59,17 @@ public class UserSchedule {
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Overlaps found when this timetable was saved or updated; not stored, absent on reads
+    @Transient
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private List<ScheduleConflict> conflicts;
+
+    // The API keeps returning the keyed ScheduleDTO JSON whatever the storage format
+    @JsonProperty("schedule")
+    public String getScheduleJson() {
+        return storageFormat == Format.COMPACT ? ScheduleSnapshotCodec.expand(schedule) : schedule;
+    }
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,36 @@
+package com.example.user_service.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One section picked in a saved timetable. rowKey (RowKeys.scheduleKey) identifies the section
+// across imports; scheduleId is the row of the dataset version active at save time and stops
+// resolving once that version is collected.
+@Entity
+@Table(name = "user_schedule_sections", indexes = {
+    @Index(name = "idx_user_schedule_sections_owner", columnList = "user_schedule_id, position"),
+    @Index(name = "idx_user_schedule_sections_row_key", columnList = "row_key"),
+    @Index(name = "idx_user_schedule_sections_schedule", columnList = "schedule_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserScheduleSection {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_schedule_id", nullable = false)
+    private Long userScheduleId;
+
+    @Column(name = "position", nullable = false)
+    private Integer position;
+
+    @Column(name = "schedule_id")
+    private Long scheduleId;
+
+    @Column(name = "row_key", length = 40, nullable = false)
+    private String rowKey;
+}
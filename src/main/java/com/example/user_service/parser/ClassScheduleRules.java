@@ -0,0 +1,196 @@
+package com.example.user_service.parser;
+
+import com.example.user_service.entity.Schedule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+// Java port of the row rules in python/process_classes.py.
+// Keep the two in sync while the Python parser is still selectable.
+public final class ClassScheduleRules {
+
+    // python/constant.py
+    private static final Set<String> VALID_MAJORS = Set.of(
+        "IT", "CE", "BA", "JIT", "KIT", "GCE", "GIC", "NS", "IR", "DA", "MC", "SE", "AD"
+    );
+    private static final Set<String> INVALID_ROOMS = Set.of("Chưa xếp phòng", "(Chọn)", "-");
+
+    private static final Pattern GDTC = Pattern.compile("GDTC\\s*(\\d+)\\s*(?:\\((.*?)\\))?\\s*(?:-(\\d+))?");
+    private static final Pattern MAJOR = Pattern.compile("\\((\\w+)\\)", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern CLASS_NUMBER = Pattern.compile("\\(([-\\d]+)\\)");
+    private static final Pattern SUBTOPIC = Pattern.compile("_(?!TA)(.+)");
+    private static final Pattern NAME_NOISE = Pattern.compile("\\(.*?\\)|_.*");
+    private static final Pattern DAY = Pattern.compile("(Thứ \\w+)", Pattern.UNICODE_CHARACTER_CLASS);
+    private static final Pattern PERIODS = Pattern.compile("Tiết ([\\d,->]+)");
+    private static final Pattern ROOM = Pattern.compile("([A-Z])\\.(.+)");
+
+    private ClassScheduleRules() {
+    }
+
+    // process_class_name: "Tên lớp học phần" -> course name, class number, language, major, raw subtopic
+    public static void applyClassName(Schedule schedule, String className) {
+        if (className == null || className.isBlank()) {
+            schedule.setCourseName("");
+            schedule.setLanguage("");
+            schedule.setMajor("");
+            schedule.setSubtopic("");
+            return;
+        }
+
+        Matcher gdtc = GDTC.matcher(className);
+        if (gdtc.lookingAt()) {
+            schedule.setCourseName(("GDTC " + gdtc.group(1)).strip());
+            schedule.setClassNumber(gdtc.group(3) != null ? parseInteger(gdtc.group(3)) : null);
+            schedule.setLanguage("Tiếng Việt");
+            schedule.setMajor("");
+            schedule.setSubtopic(gdtc.group(2) != null && !gdtc.group(2).isEmpty() ? gdtc.group(2) : "Không có");
+            return;
+        }
+
+        Matcher major = MAJOR.matcher(className);
+        schedule.setMajor(major.find() && VALID_MAJORS.contains(major.group(1)) ? major.group(1) : "");
+
+        Matcher classNumber = CLASS_NUMBER.matcher(className);
+        schedule.setClassNumber(classNumber.find()
+            ? parseInteger(classNumber.group(1).replaceFirst("^[-0]+", ""))
+            : null);
+
+        schedule.setLanguage(className.contains("_TA") ? "Tiếng Anh" : "Tiếng Việt");
+
+        Matcher subtopic = SUBTOPIC.matcher(className);
+        schedule.setSubtopic(subtopic.find() ? subtopic.group(1) : "");
+
+        schedule.setCourseName(NAME_NOISE.matcher(className).replaceAll("").strip());
+    }
+
+    // process_subtopic_level2: split the raw subtopic into "Lớp theo học" and "Chủ đề phụ"
+    public static void applySubtopic(Schedule schedule, String rawSubtopic) {
+        if (rawSubtopic == null || rawSubtopic.isBlank()) {
+            schedule.setClassGroup("");
+            schedule.setSubtopic("");
+            return;
+        }
+
+        String[] parts = rawSubtopic.split("_", -1);
+
+        // No "_": an abbreviation is the class group, anything else is the subtopic
+        if (parts.length == 1) {
+            String value = parts[0].strip();
+            if (isUpper(value) && value.codePointCount(0, value.length()) <= 5 && !value.contains(" ")) {
+                schedule.setClassGroup(value);
+                schedule.setSubtopic("");
+            } else {
+                schedule.setClassGroup("");
+                schedule.setSubtopic(value);
+            }
+            return;
+        }
+
+        // "EF_Tiền số và công nghệ blockchain" -> EF / Tiền số và công nghệ blockchain
+        // "GIT_UX thực tế_TA" -> GIT / UX thực tế (parts after the second are dropped)
+        String classGroup = parts[0].replace(",", ", ").strip();
+        String subtopic = parts[1].strip();
+        schedule.setClassGroup(classGroup);
+        schedule.setSubtopic(isUpper(subtopic) && subtopic.codePointCount(0, subtopic.length()) <= 3 ? "" : subtopic);
+    }
+
+    // process_schedule: "Thời khóa biểu" -> day of week and expanded period list, e.g. "[1, 2, 3]"
+    public static void applyTimetable(Schedule schedule, String timetable) {
+        if (timetable == null) {
+            timetable = "";
+        }
+        timetable = timetable.strip();
+
+        Matcher day = DAY.matcher(timetable);
+        schedule.setDayOfWeek(day.find() ? day.group(1) : "");
+
+        Matcher periods = PERIODS.matcher(timetable);
+        List<Integer> periodList = periods.find() ? expandPeriods(periods.group(1)) : List.of();
+        schedule.setPeriods(periodList.stream()
+            .map(String::valueOf)
+            .collect(Collectors.joining(", ", "[", "]")));
+    }
+
+    // process_room: "Phòng học" -> location (building letter) and room number
+    public static void applyRoom(Schedule schedule, String room) {
+        if (room == null || room.isBlank()) {
+            schedule.setLocation("");
+            schedule.setRoomNumber("");
+            return;
+        }
+        room = room.strip();
+        if (INVALID_ROOMS.contains(room)) {
+            schedule.setLocation(room);
+            schedule.setRoomNumber("");
+            return;
+        }
+        Matcher matcher = ROOM.matcher(room);
+        if (matcher.lookingAt()) {
+            schedule.setLocation(matcher.group(1));
+            schedule.setRoomNumber(matcher.group(2));
+        } else {
+            schedule.setLocation("Khác");
+            schedule.setRoomNumber(room);
+        }
+    }
+
+    public static Integer parseInteger(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Integer.parseInt(value.strip());
+        } catch (NumberFormatException e) {
+            // Excel numeric cells may come through as "40.0"
+            try {
+                double number = Double.parseDouble(value.strip());
+                return number == Math.rint(number) ? (int) number : null;
+            } catch (NumberFormatException ignored) {
+                return null;
+            }
+        }
+    }
+
+    private static List<Integer> expandPeriods(String periods) {
+        List<Integer> result = new ArrayList<>();
+        try {
+            for (String part : periods.split(",", -1)) {
+                if (part.contains("->")) {
+                    String[] bounds = part.split("->", -1);
+                    if (bounds.length != 2) {
+                        return List.of();
+                    }
+                    int start = Integer.parseInt(bounds[0]);
+                    int end = Integer.parseInt(bounds[1]);
+                    for (int p = start; p <= end; p++) {
+                        result.add(p);
+                    }
+                } else {
+                    result.add(Integer.parseInt(part));
+                }
+            }
+        } catch (NumberFormatException e) {
+            return List.of();
+        }
+        return result;
+    }
+
+    // Python str.isupper(): at least one cased character and no lowercase ones
+    private static boolean isUpper(String value) {
+        boolean cased = false;
+        for (int i = 0; i < value.length(); ) {
+            int cp = value.codePointAt(i);
+            if (Character.isLowerCase(cp) || Character.isTitleCase(cp)) {
+                return false;
+            }
+            if (Character.isUpperCase(cp)) {
+                cased = true;
+            }
+            i += Character.charCount(cp);
+        }
+        return cased;
+    }
+}
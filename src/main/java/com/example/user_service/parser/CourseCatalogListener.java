@@ -0,0 +1,16 @@
+package com.example.user_service.parser;
+
+// Receives the course catalog as a stream of hierarchy events.
+// Each academic year, semester, cohort and class is announced once, before its first course.
+public interface CourseCatalogListener {
+
+    void onAcademicYear(String yearName);
+
+    void onSemester(String semesterName);
+
+    void onCohort(String cohortCode);
+
+    void onClass(String cohortCode, String classCode);
+
+    void onCourse(String cohortCode, String classCode, CourseRow course);
+}
@@ -0,0 +1,121 @@
+package com.example.user_service.parser;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Streams the course catalog workbook once and emits hierarchy events.
+// Replaces the process_course.py -> JSON -> readTree round trip.
+@Component
+@RequiredArgsConstructor
+public class CourseCatalogParser {
+
+    private static final String SHEET_NAME = "Sheet1";
+    // Title sits in A1, column headers on the 6th row, data below
+    private static final int TITLE_ROW = 0;
+    private static final int HEADER_ROW = 5;
+
+    private final SpreadsheetReader spreadsheetReader;
+
+    public int parse(InputStream in, String fileName, CourseCatalogListener listener) throws Exception {
+        ParseState state = new ParseState(listener);
+        spreadsheetReader.read(in, fileName, SHEET_NAME, state::onRow);
+        state.startCatalog();
+        return state.courseCount;
+    }
+
+    private static class ParseState {
+        private final CourseCatalogListener listener;
+        private final Set<String> seenCohorts = new HashSet<>();
+        private final Set<String> seenClasses = new HashSet<>();
+        private String title = "";
+        private boolean started;
+        private List<Integer> columns;
+        private int courseCount;
+
+        ParseState(CourseCatalogListener listener) {
+            this.listener = listener;
+        }
+
+        void onRow(int rowIndex, List<String> cells) {
+            if (rowIndex == TITLE_ROW) {
+                title = cells.isEmpty() ? "" : cells.get(0);
+            } else if (rowIndex == HEADER_ROW) {
+                columns = mapColumns(cells);
+            } else if (rowIndex > HEADER_ROW) {
+                if (columns == null) {
+                    throw new RuntimeException("Course sheet has no header row");
+                }
+                startCatalog();
+                emitRow(cells);
+            }
+        }
+
+        void startCatalog() {
+            if (started) {
+                return;
+            }
+            started = true;
+            listener.onAcademicYear(CourseCatalogRules.extractAcademicYear(title));
+            listener.onSemester(CourseCatalogRules.semesterName(CourseCatalogRules.extractSemesterNumber(title)));
+        }
+
+        // Positions of [course name, LT, TH, total, subtopic, class] with the "STT" column dropped
+        private List<Integer> mapColumns(List<String> header) {
+            List<Integer> result = new ArrayList<>();
+            for (int i = 0; i < header.size(); i++) {
+                if (!"STT".equals(header.get(i))) {
+                    result.add(i);
+                }
+            }
+            if (result.size() < 6) {
+                throw new RuntimeException("Input sheet does not contain the expected 6+ columns");
+            }
+            return result;
+        }
+
+        private void emitRow(List<String> cells) {
+            String rawClasses = cell(cells, 5);
+            String rawName = cell(cells, 0);
+            if (rawClasses.isEmpty() || rawName.isEmpty()) {
+                return;
+            }
+
+            String subtopic = cell(cells, 4);
+            CourseRow course = new CourseRow(
+                CourseCatalogRules.cleanCourseName(rawName),
+                subtopic.isEmpty() ? null : subtopic,
+                CourseCatalogRules.safeDouble(cell(cells, 1)),
+                CourseCatalogRules.safeDouble(cell(cells, 2)),
+                CourseCatalogRules.safeDouble(cell(cells, 3))
+            );
+
+            for (String token : rawClasses.split(",")) {
+                List<String> classes = CourseCatalogRules.expandClassToken(token);
+                if (classes.isEmpty()) {
+                    continue;
+                }
+                String cohortCode = CourseCatalogRules.cohortOf(classes);
+                if (seenCohorts.add(cohortCode)) {
+                    listener.onCohort(cohortCode);
+                }
+                for (String classCode : classes) {
+                    if (seenClasses.add(cohortCode + "/" + classCode)) {
+                        listener.onClass(cohortCode, classCode);
+                    }
+                    listener.onCourse(cohortCode, classCode, course);
+                    courseCount++;
+                }
+            }
+        }
+
+        private String cell(List<String> cells, int column) {
+            int index = columns.get(column);
+            return index < cells.size() ? cells.get(index).strip() : "";
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.user_service.parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Java port of the helpers in python/process_course.py.
+// Keep the two in sync while the Python parser is still selectable.
+public final class CourseCatalogRules {
+
+    private static final Pattern ACADEMIC_YEAR = Pattern.compile(
+        "NĂM\\s*HỌC\\s+(\\d{4}-\\d{4})", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern SEMESTER = Pattern.compile(
+        "HỌC\\s*KỲ\\s+(\\d+)", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+    private static final Pattern CLASS_BOUND = Pattern.compile("([A-Za-z0-9_]*?)(\\d+)");
+    private static final Pattern COHORT = Pattern.compile("(\\d+)");
+    private static final Pattern PARENTHESES = Pattern.compile("\\s*\\([^)]+\\)");
+
+    private CourseCatalogRules() {
+    }
+
+    // extract_metadata_from_title: "... HỌC KỲ 1 ... NĂM HỌC 2025-2026 ..." -> "2025-2026"
+    public static String extractAcademicYear(String title) {
+        Matcher matcher = ACADEMIC_YEAR.matcher(title != null ? title : "");
+        return matcher.find() ? matcher.group(1) : "UNKNOWN";
+    }
+
+    // extract_metadata_from_title: semester number, 0 when missing
+    public static int extractSemesterNumber(String title) {
+        Matcher matcher = SEMESTER.matcher(title != null ? title : "");
+        return matcher.find() ? Integer.parseInt(matcher.group(1)) : 0;
+    }
+
+    public static String semesterName(int semesterNumber) {
+        return semesterNumber > 0 ? "semester_" + semesterNumber : "semester_unknown";
+    }
+
+    // expand_class_token: "19SE1->SE5" -> [19SE1 .. 19SE5], "22SE1->2" -> [22SE1, 22SE2]
+    public static List<String> expandClassToken(String token) {
+        token = token.strip();
+        if (!token.contains("->")) {
+            return token.isEmpty() ? List.of() : List.of(token);
+        }
+
+        int arrow = token.indexOf("->");
+        String left = token.substring(0, arrow).strip();
+        String right = token.substring(arrow + 2).strip();
+
+        Matcher leftMatch = CLASS_BOUND.matcher(left);
+        if (!leftMatch.matches()) {
+            return List.of(token);
+        }
+        String leftPrefix = leftMatch.group(1);
+        int start = Integer.parseInt(leftMatch.group(2));
+
+        int end;
+        if (!right.isEmpty() && right.chars().allMatch(Character::isDigit)) {
+            end = Integer.parseInt(right);
+        } else {
+            Matcher rightMatch = CLASS_BOUND.matcher(right);
+            if (!rightMatch.matches()) {
+                return List.of(token);
+            }
+            // Only check suffix compatibility
+            if (!leftPrefix.endsWith(rightMatch.group(1))) {
+                return List.of(token);
+            }
+            end = Integer.parseInt(rightMatch.group(2));
+        }
+
+        if (end < start) {
+            return List.of(token);
+        }
+
+        List<String> classes = new ArrayList<>(end - start + 1);
+        for (int i = start; i <= end; i++) {
+            classes.add(leftPrefix + i);
+        }
+        return classes;
+    }
+
+    // get_cohort_and_classes: cohort is the leading number of the first class, "0" when absent
+    public static String cohortOf(List<String> classes) {
+        if (!classes.isEmpty()) {
+            Matcher matcher = COHORT.matcher(classes.get(0));
+            if (matcher.lookingAt()) {
+                return String.valueOf(Integer.parseInt(matcher.group(1)));
+            }
+        }
+        return "0";
+    }
+
+    // clean_course_name: "Thực tập doanh nghiệp (IT)" -> "Thực tập doanh nghiệp"
+    public static String cleanCourseName(String courseName) {
+        return PARENTHESES.matcher(courseName).replaceAll("").strip();
+    }
+
+    // safe_float: 0.0 for blank or non-numeric cells
+    public static double safeDouble(String value) {
+        if (value == null || value.isBlank()) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(value.strip());
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.user_service.parser;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CourseRow {
+    private String courseName;
+    private String subtopic;
+    private double theoryCredits;
+    private double practicalCredits;
+    private double totalCredits;
+}
@@ -0,0 +1,63 @@
+package com.example.user_service.parser;
+
+import com.example.user_service.entity.Schedule;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+// Stable natural keys and content hashes used to diff a re-import against stored rows.
+// The key identifies a meeting of a section, the content hash covers everything else.
+public final class RowKeys {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private RowKeys() {
+    }
+
+    public static String scheduleKey(Schedule s) {
+        return scheduleKey(s.getCourseName(), s.getClassNumber(), s.getSubtopic(), s.getClassGroup(),
+            s.getMajor(), s.getLanguage(), s.getDayOfWeek(), s.getPeriods());
+    }
+
+    public static String scheduleKey(String courseName, Integer classNumber, String subtopic, String classGroup,
+                                     String major, String language, String dayOfWeek, String periods) {
+        return sha1(courseName, classNumber, subtopic, classGroup, major, language, dayOfWeek, periods);
+    }
+
+    public static String scheduleContentHash(Schedule s) {
+        return sha1(s.getInstructor(), s.getLocation(), s.getRoomNumber(), s.getWeeks(), s.getCapacity());
+    }
+
+    public static String courseKey(String yearName, String semesterName, String cohortCode, String classCode,
+                                   String courseName, String subtopic) {
+        return sha1(yearName, semesterName, cohortCode, classCode, courseName, subtopic);
+    }
+
+    public static String courseContentHash(Double theoryCredits, Double practicalCredits, Double totalCredits) {
+        return sha1(theoryCredits, practicalCredits, totalCredits);
+    }
+
+    // The same key appearing again in one file gets a distinct, still deterministic key
+    public static String withOccurrence(String key, int occurrence) {
+        return occurrence <= 1 ? key : sha1(key, occurrence);
+    }
+
+    // The shape of every key above: a hex SHA-1
+    public static boolean isRowKey(String value) {
+        return value != null && value.length() == 40 && value.chars().allMatch(HexFormat::isHexDigit);
+    }
+
+    private static String sha1(Object... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (Object part : parts) {
+            joined.append(part != null ? part.toString().strip() : "").append(SEPARATOR);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-1");
+            return HexFormat.of().formatHex(digest.digest(joined.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.user_service.parser;
+
+import com.example.user_service.entity.Schedule;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+// Turns the raw class timetable sheet into Schedule rows, one row at a time.
+// Replaces the process_classes.py -> CSV -> commons-csv round trip.
+@Component
+@RequiredArgsConstructor
+public class ScheduleSheetParser {
+
+    private static final String COL_CLASS_NAME = "Tên lớp học phần";
+    private static final String COL_INSTRUCTOR = "Giảng viên";
+    private static final String COL_TIMETABLE = "Thời khóa biểu";
+    private static final String COL_ROOM = "Phòng học";
+    private static final String COL_WEEKS = "Tuần học";
+    private static final String COL_CAPACITY = "Sỉ số";
+
+    private final SpreadsheetReader spreadsheetReader;
+
+    public int parse(InputStream in, String fileName, Consumer<Schedule> sink) throws Exception {
+        Map<String, Integer> header = new HashMap<>();
+        int[] count = {0};
+
+        spreadsheetReader.read(in, fileName, null, (rowIndex, cells) -> {
+            if (isBlank(cells)) {
+                return;
+            }
+            if (header.isEmpty()) {
+                for (int i = 0; i < cells.size(); i++) {
+                    header.putIfAbsent(cells.get(i).strip(), i);
+                }
+                if (!header.containsKey(COL_CLASS_NAME)) {
+                    throw new RuntimeException("Missing column: " + COL_CLASS_NAME);
+                }
+                return;
+            }
+            sink.accept(toSchedule(cells, header));
+            count[0]++;
+        });
+
+        if (count[0] == 0) {
+            throw new RuntimeException("No schedule rows found in file");
+        }
+        return count[0];
+    }
+
+    private Schedule toSchedule(List<String> cells, Map<String, Integer> header) {
+        Schedule schedule = new Schedule();
+        ClassScheduleRules.applyClassName(schedule, value(cells, header, COL_CLASS_NAME));
+        ClassScheduleRules.applySubtopic(schedule, schedule.getSubtopic());
+        ClassScheduleRules.applyTimetable(schedule, value(cells, header, COL_TIMETABLE));
+        ClassScheduleRules.applyRoom(schedule, value(cells, header, COL_ROOM));
+        schedule.setInstructor(value(cells, header, COL_INSTRUCTOR));
+        schedule.setWeeks(value(cells, header, COL_WEEKS));
+        schedule.setCapacity(ClassScheduleRules.parseInteger(value(cells, header, COL_CAPACITY)));
+        return schedule;
+    }
+
+    private String value(List<String> cells, Map<String, Integer> header, String column) {
+        Integer index = header.get(column);
+        if (index == null || index >= cells.size()) {
+            return "";
+        }
+        return cells.get(index);
+    }
+
+    private boolean isBlank(List<String> cells) {
+        for (String cell : cells) {
+            if (cell != null && !cell.isBlank()) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.user_service.parser;
+
+import com.example.user_service.dto.ScheduleDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import java.util.ArrayList;
+import java.util.List;
+
+// Compact history snapshot of a saved timetable: one positional array per section instead of
+// a keyed object, in ScheduleDTO field order. Roughly halves the stored JSON, since the keys
+// (and nulls spelled out under them) were most of it.
+public final class ScheduleSnapshotCodec {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private ScheduleSnapshotCodec() {
+    }
+
+    public static String encode(List<ScheduleDTO> schedules) {
+        ArrayNode rows = MAPPER.createArrayNode();
+        for (ScheduleDTO s : schedules) {
+            ArrayNode row = rows.addArray();
+            row.add(s.getCourseName());
+            row.add(s.getClassNumber());
+            row.add(s.getLanguage());
+            row.add(s.getMajor());
+            row.add(s.getClassGroup());
+            row.add(s.getSubtopic());
+            row.add(s.getInstructor());
+            row.add(s.getDayOfWeek());
+            row.add(s.getPeriods());
+            row.add(s.getLocation());
+            row.add(s.getRoomNumber());
+            row.add(s.getWeeks());
+            row.add(s.getCapacity());
+            row.add(s.getRowKey());
+        }
+        return rows.toString();
+    }
+
+    public static List<ScheduleDTO> decode(String snapshot) {
+        try {
+            List<ScheduleDTO> schedules = new ArrayList<>();
+            for (JsonNode row : MAPPER.readTree(snapshot)) {
+                schedules.add(new ScheduleDTO(text(row, 0), integer(row, 1), text(row, 2), text(row, 3),
+                    text(row, 4), text(row, 5), text(row, 6), text(row, 7), text(row, 8), text(row, 9),
+                    text(row, 10), text(row, 11), integer(row, 12), text(row, 13)));
+            }
+            return schedules;
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Corrupt schedule snapshot", e);
+        }
+    }
+
+    // The keyed ScheduleDTO JSON the API has always returned
+    public static String expand(String snapshot) {
+        try {
+            return MAPPER.writeValueAsString(decode(snapshot));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Corrupt schedule snapshot", e);
+        }
+    }
+
+    private static String text(JsonNode row, int index) {
+        JsonNode value = row.get(index);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private static Integer integer(JsonNode row, int index) {
+        JsonNode value = row.get(index);
+        return value == null || value.isNull() ? null : value.asInt();
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.user_service.parser;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.springframework.stereotype.Component;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+// Streams the rows of an uploaded sheet one at a time.
+// .xlsx is read with the POI SAX event API, so only the current row is held in memory.
+@Component
+public class SpreadsheetReader {
+
+    @FunctionalInterface
+    public interface RowHandler {
+        void onRow(int rowIndex, List<String> cells);
+    }
+
+    public void read(InputStream in, String fileName, String sheetName, RowHandler handler) throws Exception {
+        String name = fileName != null ? fileName.toLowerCase() : "";
+        if (name.endsWith(".csv")) {
+            readCsv(in, handler);
+        } else if (name.endsWith(".xls")) {
+            readXls(in, sheetName, handler);
+        } else {
+            readXlsx(in, sheetName, handler);
+        }
+    }
+
+    private void readXlsx(InputStream in, String sheetName, RowHandler handler) throws Exception {
+        try (OPCPackage pkg = OPCPackage.open(in)) {
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+            InputStream selected = null;
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                if (selected == null && (sheetName == null || sheetName.equals(sheets.getSheetName()))) {
+                    selected = sheet;
+                } else {
+                    sheet.close();
+                }
+            }
+            if (selected == null) {
+                // Requested sheet is missing, fall back to the first one
+                selected = ((XSSFReader.SheetIterator) reader.getSheetsData()).next();
+            }
+
+            try (InputStream sheet = selected) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                    styles, null, strings, new RowCollector(handler), new DataFormatter(), false));
+                parser.parse(new InputSource(sheet));
+            }
+        }
+    }
+
+    private void readXls(InputStream in, String sheetName, RowHandler handler) throws Exception {
+        // HSSF has no row-streaming reader; .xls is capped at 65k rows anyway
+        DataFormatter formatter = new DataFormatter();
+        try (Workbook workbook = WorkbookFactory.create(in)) {
+            Sheet sheet = sheetName != null && workbook.getSheet(sheetName) != null
+                ? workbook.getSheet(sheetName)
+                : workbook.getSheetAt(0);
+            for (Row row : sheet) {
+                List<String> cells = new ArrayList<>();
+                for (int i = 0; i < row.getLastCellNum(); i++) {
+                    Cell cell = row.getCell(i);
+                    cells.add(cell != null ? formatter.formatCellValue(cell).trim() : "");
+                }
+                handler.onRow(row.getRowNum(), cells);
+            }
+        }
+    }
+
+    private void readCsv(InputStream in, RowHandler handler) throws Exception {
+        try (CSVParser csvParser = new CSVParser(
+                new InputStreamReader(in, StandardCharsets.UTF_8),
+                CSVFormat.DEFAULT.builder().setIgnoreSurroundingSpaces(true).setTrim(true).build())) {
+            for (CSVRecord record : csvParser) {
+                List<String> cells = new ArrayList<>(record.size());
+                for (String value : record) {
+                    cells.add(value);
+                }
+                if (record.getRecordNumber() == 1 && !cells.isEmpty()) {
+                    // Strip UTF-8 BOM written by Excel
+                    cells.set(0, cells.get(0).replace("\uFEFF", ""));
+                }
+                handler.onRow((int) record.getRecordNumber() - 1, cells);
+            }
+        }
+    }
+
+    // Collects the sparse cells reported by the SAX handler into a dense row
+    private static class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private int nextColumn;
+
+        RowCollector(RowHandler handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            nextColumn = 0;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            handler.onRow(rowNum, new ArrayList<>(cells));
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            int column = cellReference != null
+                ? new CellReference(cellReference).getCol()
+                : nextColumn;
+            while (cells.size() < column) {
+                cells.add("");
+            }
+            cells.add(formattedValue != null ? formattedValue.trim() : "");
+            nextColumn = column + 1;
+        }
+    }
+}
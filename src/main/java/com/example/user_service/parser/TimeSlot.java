@@ -0,0 +1,13 @@
+package com.example.user_service.parser;
+
+// When a section meets: one weekday, a set of periods and a set of weeks.
+// periodMask has bit p set for period p, weekMask has bit w-1 set for week w.
+// A weekMask of 0 means the weeks are unknown and is treated as every week.
+public record TimeSlot(int dayIndex, int periodMask, long weekMask) {
+
+    public boolean overlaps(TimeSlot other) {
+        return dayIndex == other.dayIndex
+            && (periodMask & other.periodMask) != 0
+            && (weekMask == 0 || other.weekMask == 0 || (weekMask & other.weekMask) != 0);
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.user_service.parser;
+
+import com.example.user_service.entity.Schedule;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Parses the free-text day, period and week columns into TimeSlot bitmasks once at import.
+// Accepts what both parsers produce: "Thứ 2", "[1, 2, 3]" or "1->3,5", "1-15" or "1,2,3".
+public final class TimeSlotCodec {
+
+    public static final int MAX_PERIOD = 31;
+    public static final int MAX_WEEK = 64;
+
+    private static final String[] DAY_WORDS = {"hai", "ba", "tư", "năm", "sáu", "bảy"};
+
+    private TimeSlotCodec() {
+    }
+
+    public static void apply(Schedule schedule) {
+        schedule.setDayIndex(dayIndex(schedule.getDayOfWeek()));
+        schedule.setPeriodMask(periodMask(schedule.getPeriods()));
+        schedule.setWeekMask(weekMask(schedule.getWeeks()));
+    }
+
+    // Null when the row has no usable day or periods, e.g. online sections
+    public static TimeSlot toTimeSlot(Schedule schedule) {
+        Integer day = schedule.getDayIndex() != null ? schedule.getDayIndex() : dayIndex(schedule.getDayOfWeek());
+        int periods = schedule.getPeriodMask() != null ? schedule.getPeriodMask() : periodMask(schedule.getPeriods());
+        long weeks = schedule.getWeekMask() != null ? schedule.getWeekMask() : weekMask(schedule.getWeeks());
+        return day == null || periods == 0 ? null : new TimeSlot(day, periods, weeks);
+    }
+
+    public static TimeSlot toTimeSlot(String dayOfWeek, String periods, String weeks) {
+        Integer day = dayIndex(dayOfWeek);
+        int periodMask = periodMask(periods);
+        return day == null || periodMask == 0 ? null : new TimeSlot(day, periodMask, weekMask(weeks));
+    }
+
+    public static List<Integer> weeks(long weekMask) {
+        List<Integer> weeks = new ArrayList<>();
+        for (int w = 1; w <= MAX_WEEK; w++) {
+            if ((weekMask & (1L << (w - 1))) != 0) {
+                weeks.add(w);
+            }
+        }
+        return weeks;
+    }
+
+    // Monday = 0 ... Sunday = 6
+    public static Integer dayIndex(String dayOfWeek) {
+        if (dayOfWeek == null || dayOfWeek.isBlank()) {
+            return null;
+        }
+        String day = dayOfWeek.strip().toLowerCase(Locale.ROOT);
+        if (day.startsWith("chủ nhật") || day.equals("cn")) {
+            return 6;
+        }
+        String value = day.startsWith("thứ") ? day.substring("thứ".length()).strip() : day;
+        Integer number = ClassScheduleRules.parseInteger(value);
+        if (number != null) {
+            return number >= 2 && number <= 7 ? number - 2 : null;
+        }
+        for (int i = 0; i < DAY_WORDS.length; i++) {
+            if (DAY_WORDS[i].equals(value)) {
+                return i;
+            }
+        }
+        return null;
+    }
+
+    public static int periodMask(String periods) {
+        int mask = 0;
+        for (int period : expand(periods, MAX_PERIOD)) {
+            mask |= 1 << period;
+        }
+        return mask;
+    }
+
+    public static long weekMask(String weeks) {
+        long mask = 0;
+        for (int week : expand(weeks, MAX_WEEK)) {
+            mask |= 1L << (week - 1);
+        }
+        return mask;
+    }
+
+    public static List<Integer> periods(int periodMask) {
+        List<Integer> periods = new ArrayList<>();
+        for (int p = 1; p <= MAX_PERIOD; p++) {
+            if ((periodMask & (1 << p)) != 0) {
+                periods.add(p);
+            }
+        }
+        return periods;
+    }
+
+    // "1-3, 5" / "[1, 2, 3]" / "1->3,5" -> 1, 2, 3, 5; values outside 1..max are dropped.
+    // Hand-rolled scanner: this runs for every section of every conflict check.
+    private static List<Integer> expand(String text, int max) {
+        List<Integer> values = new ArrayList<>();
+        if (text == null) {
+            return values;
+        }
+        int start = -1;
+        int current = -1;
+        boolean range = false;
+        boolean fraction = false;
+        for (int i = 0; i <= text.length(); i++) {
+            char c = i < text.length() ? text.charAt(i) : ',';
+            if (c >= '0' && c <= '9') {
+                if (fraction) {
+                    continue;
+                }
+                current = (current < 0 ? 0 : current * 10) + (c - '0');
+                if (current > 1000) {
+                    current = 1000;
+                }
+            } else if (c == '-' || c == '>') {
+                if (current >= 0) {
+                    start = current;
+                    current = -1;
+                    range = true;
+                }
+                fraction = false;
+            } else if (c == '.') {
+                // Excel numeric cells may come through as "3.0"
+                fraction = current >= 0;
+            } else if (c == ',' || c == ';') {
+                int from = range ? start : current;
+                int to = current;
+                if (from >= 0 && to >= 0) {
+                    for (int v = Math.max(1, from); v <= Math.min(max, to); v++) {
+                        values.add(v);
+                    }
+                }
+                start = -1;
+                current = -1;
+                range = false;
+                fraction = false;
+            } else {
+                fraction = false;
+            }
+        }
+        return values;
+    }
+}
@@ -3,6 +3,8 @@ package com.example.user_service.repository;
 import com.example.user_service.entity.ClassEntity;
 import com.example.user_service.entity.Cohort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +13,8 @@ import java.util.Optional;
 public interface ClassRepository extends JpaRepository<ClassEntity, Long> {
     List<ClassEntity> findByCohort(Cohort cohort);
     Optional<ClassEntity> findByClassCodeAndCohort(String classCode, Cohort cohort);
+
+    @Modifying
+    @Query("DELETE FROM ClassEntity ce WHERE NOT EXISTS (SELECT c FROM Course c WHERE c.classEntity = ce)")
+    int deleteWithoutCourses();
 }
@@ -3,6 +3,8 @@ package com.example.user_service.repository;
 import com.example.user_service.entity.Cohort;
 import com.example.user_service.entity.Semester;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
@@ -11,4 +13,8 @@ import java.util.Optional;
 public interface CohortRepository extends JpaRepository<Cohort, Long> {
     List<Cohort> findBySemester(Semester semester);
     Optional<Cohort> findByCohortCodeAndSemester(String cohortCode, Semester semester);
+
+    @Modifying
+    @Query("DELETE FROM Cohort co WHERE NOT EXISTS (SELECT ce FROM ClassEntity ce WHERE ce.cohort = co)")
+    int deleteWithoutClasses();
 }
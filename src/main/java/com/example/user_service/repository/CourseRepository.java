@@ -3,10 +3,15 @@ package com.example.user_service.repository;
 import com.example.user_service.entity.Course;
 import com.example.user_service.entity.ClassEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
     List<Course> findByClassEntity(ClassEntity classEntity);
+
+    @Query("SELECT c FROM Course c JOIN FETCH c.classEntity ce JOIN FETCH ce.cohort co "
+        + "JOIN FETCH co.semester s JOIN FETCH s.academicYear ORDER BY c.id")
+    List<Course> findAllWithHierarchy();
 }
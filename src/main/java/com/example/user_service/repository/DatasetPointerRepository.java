@@ -0,0 +1,18 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.entity.DatasetPointer;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface DatasetPointerRepository extends JpaRepository<DatasetPointer, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p FROM DatasetPointer p WHERE p.dataset = :dataset")
+    Optional<DatasetPointer> findForUpdate(@Param("dataset") String dataset);
+}
@@ -0,0 +1,13 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.entity.DatasetVersion;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface DatasetVersionRepository extends JpaRepository<DatasetVersion, Long> {
+    List<DatasetVersion> findByDatasetOrderByIdDesc(String dataset);
+    List<DatasetVersion> findByDatasetAndStatusIn(String dataset, Collection<DatasetVersion.Status> statuses);
+}
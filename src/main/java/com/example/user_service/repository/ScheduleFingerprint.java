@@ -0,0 +1,8 @@
+package com.example.user_service.repository;
+
+// Just enough of a stored schedule row to diff a re-import against it
+public interface ScheduleFingerprint {
+    Long getId();
+    String getRowKey();
+    String getContentHash();
+}
@@ -4,26 +4,29 @@ import com.example.user_service.entity.Schedule;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
+// Readers pass the active dataset version from DatasetVersionService
 @Repository
-public interface ScheduleRepository extends JpaRepository<Schedule, Long> {
-    List<Schedule> findByCourseName(String courseName);
-    List<Schedule> findByCourseNameContainingIgnoreCase(String courseName);
+public interface ScheduleRepository extends JpaRepository<Schedule, Long>, ScheduleRepositoryCustom {
+    List<Schedule> findByDatasetVersion(Long datasetVersion);
+    List<ScheduleFingerprint> findFingerprintsByDatasetVersion(Long datasetVersion);
+    List<ScheduleFingerprint> findFingerprintsByDatasetVersionAndRowKeyIn(Long datasetVersion, Collection<String> rowKeys);
+    List<Schedule> findByPeriodMaskIsNull();
     
     // Query for schedules with specific subtopic (not empty)
-    @Query("SELECT s FROM Schedule s WHERE s.courseName = :courseName AND s.subtopic = :subtopic AND s.subtopic != ''")
+    @Query("SELECT s FROM Schedule s WHERE s.datasetVersion = :version AND s.courseName = :courseName AND s.subtopic = :subtopic AND s.subtopic != ''")
     List<Schedule> findByCourseNameAndSubtopicNotEmpty(
+        @org.springframework.data.repository.query.Param("version") Long version,
         @org.springframework.data.repository.query.Param("courseName") String courseName, 
         @org.springframework.data.repository.query.Param("subtopic") String subtopic
     );
     
     // Query for schedules with empty subtopic
-    @Query("SELECT s FROM Schedule s WHERE s.courseName = :courseName AND (s.subtopic IS NULL OR s.subtopic = '')")
+    @Query("SELECT s FROM Schedule s WHERE s.datasetVersion = :version AND s.courseName = :courseName AND (s.subtopic IS NULL OR s.subtopic = '')")
     List<Schedule> findByCourseNameAndSubtopicEmpty(
+        @org.springframework.data.repository.query.Param("version") Long version,
         @org.springframework.data.repository.query.Param("courseName") String courseName
     );
-    
-    @Query("SELECT COUNT(DISTINCT s.courseName) FROM Schedule s")
-    long countDistinctCourseName();
 }
@@ -0,0 +1,21 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.dto.ScheduleFilter;
+import com.example.user_service.entity.Schedule;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Keyset pages of one dataset version ordered by id: rows with id > afterId, at most limit
+public interface ScheduleRepositoryCustom {
+
+    // Attributes a caller may ask for in a projected page
+    Set<String> PAGE_FIELDS = Set.of("id", "courseName", "classNumber", "language", "major", "classGroup",
+        "subtopic", "instructor", "dayOfWeek", "periods", "location", "roomNumber", "weeks", "capacity");
+
+    List<Schedule> findPage(Long datasetVersion, ScheduleFilter filter, Long afterId, int limit);
+
+    // Selects only the given PAGE_FIELDS columns; each row maps field name to value
+    List<Map<String, Object>> findPage(Long datasetVersion, ScheduleFilter filter, Long afterId, int limit,
+                                       List<String> fields);
+}
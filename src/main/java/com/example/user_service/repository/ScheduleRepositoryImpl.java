@@ -0,0 +1,100 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.dto.ScheduleFilter;
+import com.example.user_service.entity.Schedule;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TupleElement;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+// WHERE dataset_version = ? AND id > ? [AND filters] ORDER BY id LIMIT ?; the
+// (dataset_version, id) index lets MySQL stop after limit rows however large the table is
+public class ScheduleRepositoryImpl implements ScheduleRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Schedule> findPage(Long datasetVersion, ScheduleFilter filter, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Schedule> query = cb.createQuery(Schedule.class);
+        Root<Schedule> root = query.from(Schedule.class);
+        query.select(root)
+            .where(predicates(cb, root, datasetVersion, filter, afterId))
+            .orderBy(cb.asc(root.get("id")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public List<Map<String, Object>> findPage(Long datasetVersion, ScheduleFilter filter, Long afterId, int limit,
+                                              List<String> fields) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Schedule> root = query.from(Schedule.class);
+        List<Selection<?>> selections = new ArrayList<>();
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+        query.multiselect(selections)
+            .where(predicates(cb, root, datasetVersion, filter, afterId))
+            .orderBy(cb.asc(root.get("id")));
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Tuple tuple : entityManager.createQuery(query).setMaxResults(limit).getResultList()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            for (TupleElement<?> element : tuple.getElements()) {
+                row.put(element.getAlias(), tuple.get(element));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    private static Predicate[] predicates(CriteriaBuilder cb, Root<Schedule> root, Long datasetVersion,
+                                          ScheduleFilter filter, Long afterId) {
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.equal(root.get("datasetVersion"), datasetVersion));
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(root.get("id"), afterId));
+        }
+        if (filter != null) {
+            if (filter.getCourseNames() != null) {
+                predicates.add(root.get("courseName").in(filter.getCourseNames()));
+            } else {
+                contains(cb, root, predicates, "courseName", filter.getCourseName());
+            }
+            contains(cb, root, predicates, "instructor", filter.getInstructor());
+            equal(cb, root, predicates, "dayOfWeek", filter.getDayOfWeek());
+            equal(cb, root, predicates, "location", filter.getLocation());
+            equal(cb, root, predicates, "major", filter.getMajor());
+            equal(cb, root, predicates, "language", filter.getLanguage());
+        }
+        return predicates.toArray(Predicate[]::new);
+    }
+
+    private static void contains(CriteriaBuilder cb, Root<Schedule> root, List<Predicate> predicates,
+                                 String field, String value) {
+        if (value != null && !value.isBlank()) {
+            String pattern = "%" + value.strip().toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            predicates.add(cb.like(cb.lower(root.get(field)), pattern, '\\'));
+        }
+    }
+
+    private static void equal(CriteriaBuilder cb, Root<Schedule> root, List<Predicate> predicates,
+                              String field, String value) {
+        if (value != null && !value.isBlank()) {
+            predicates.add(cb.equal(root.get(field), value.strip()));
+        }
+    }
+}
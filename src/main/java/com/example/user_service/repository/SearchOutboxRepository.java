@@ -0,0 +1,14 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.entity.SearchOutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEvent, Long> {
+    @Query("SELECT e FROM SearchOutboxEvent e ORDER BY e.id")
+    List<SearchOutboxEvent> findHead(Pageable pageable);
+}
@@ -2,12 +2,48 @@ package com.example.user_service.repository;
 
 import com.example.user_service.entity.UserSchedule;
 import com.example.user_service.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface UserScheduleRepository extends JpaRepository<UserSchedule, Long> {
     List<UserSchedule> findByUserAndSemesterName(User user, String semesterName);
     List<UserSchedule> findByUser(User user);
+
+    // Rows actually removed: 0 when a concurrent delete got there first
+    @Modifying
+    @Query("DELETE FROM UserSchedule u WHERE u.id = :id")
+    int deleteIfExists(@Param("id") Long id);
+
+    // Newest first; the next page continues below the last (createdAt, id) seen
+    @Query("SELECT u.id AS id, u.semesterName AS semesterName, u.academicYear AS academicYear, "
+        + "u.createdAt AS createdAt, u.sectionCount AS sectionCount FROM UserSchedule u "
+        + "WHERE u.user.id = :userId AND (:semesterName IS NULL OR u.semesterName = :semesterName) "
+        + "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserScheduleSummary> findSummaries(@Param("userId") Long userId,
+                                            @Param("semesterName") String semesterName,
+                                            Pageable pageable);
+
+    @Query("SELECT u.id AS id, u.semesterName AS semesterName, u.academicYear AS academicYear, "
+        + "u.createdAt AS createdAt, u.sectionCount AS sectionCount FROM UserSchedule u "
+        + "WHERE u.user.id = :userId AND (:semesterName IS NULL OR u.semesterName = :semesterName) "
+        + "AND (u.createdAt < :createdAt OR (u.createdAt = :createdAt AND u.id < :id)) "
+        + "ORDER BY u.createdAt DESC, u.id DESC")
+    List<UserScheduleSummary> findSummariesBefore(@Param("userId") Long userId,
+                                                  @Param("semesterName") String semesterName,
+                                                  @Param("createdAt") LocalDateTime createdAt,
+                                                  @Param("id") Long id,
+                                                  Pageable pageable);
+
+    // Rows still holding the full JSON, in id order for batched migration
+    @Query("SELECT u FROM UserSchedule u WHERE u.id > :afterId AND "
+        + "(u.storageFormat IS NULL OR u.storageFormat <> com.example.user_service.entity.UserSchedule.Format.COMPACT) "
+        + "ORDER BY u.id")
+    List<UserSchedule> findFullAfter(@Param("afterId") Long afterId, Pageable pageable);
 }
@@ -0,0 +1,22 @@
+package com.example.user_service.repository;
+
+import com.example.user_service.entity.UserScheduleSection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface UserScheduleSectionRepository extends JpaRepository<UserScheduleSection, Long> {
+    List<UserScheduleSection> findByUserScheduleIdOrderByPosition(Long userScheduleId);
+
+    // Saved timetables that picked a section, by its stable row key
+    @Query("SELECT DISTINCT s.userScheduleId FROM UserScheduleSection s WHERE s.rowKey = :rowKey")
+    List<Long> findUserScheduleIdsByRowKey(@Param("rowKey") String rowKey);
+
+    @Modifying
+    @Query("DELETE FROM UserScheduleSection s WHERE s.userScheduleId = :userScheduleId")
+    void deleteByUserScheduleId(@Param("userScheduleId") Long userScheduleId);
+}
@@ -0,0 +1,13 @@
+package com.example.user_service.repository;
+
+import java.time.LocalDateTime;
+
+// What the saved-schedule list shows; selected column by column so the schedule, prompt and
+// parsed_prompt LOBs and the owning user are never read
+public interface UserScheduleSummary {
+    Long getId();
+    String getSemesterName();
+    String getAcademicYear();
+    LocalDateTime getCreatedAt();
+    Integer getSectionCount();
+}
@@ -6,7 +6,6 @@ import com.example.user_service.dto.CreateAdminRequest;
 import com.example.user_service.entity.Admin;
 import com.example.user_service.repository.AdminRepository;
 import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -17,7 +16,8 @@ import java.util.stream.Collectors;
 public class AdminService {
 
     private final AdminRepository adminRepository;
-    private final BCryptPasswordEncoder passwordEncoder = new BCryptPasswordEncoder();
+    private final PasswordHashingService passwordHashingService;
+    private final LoginThrottle loginThrottle;
 
     public AdminResponse createAdmin(CreateAdminRequest request) {
         if (adminRepository.existsByUsername(request.getUsername())) {
@@ -26,7 +26,7 @@ public class AdminService {
 
         Admin admin = new Admin();
         admin.setUsername(request.getUsername());
-        admin.setPassword(passwordEncoder.encode(request.getPassword()));
+        admin.setPassword(passwordHashingService.encode(request.getPassword()));
         admin.setFullName(request.getFullName());
         admin.setEmail(request.getEmail());
         admin.setIsActive(true);
@@ -35,7 +35,9 @@ public class AdminService {
         return toResponse(saved);
     }
 
-    public AdminResponse login(AdminLoginRequest request) {
+    public AdminResponse login(AdminLoginRequest request, String clientIp) {
+        loginThrottle.acquire(request.getUsername(), clientIp);
+
         Admin admin = adminRepository.findByUsername(request.getUsername())
             .orElseThrow(() -> new RuntimeException("Invalid username or password"));
 
@@ -43,9 +45,10 @@ public class AdminService {
             throw new RuntimeException("Account is disabled");
         }
 
-        if (!passwordEncoder.matches(request.getPassword(), admin.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), admin.getPassword())) {
             throw new RuntimeException("Invalid username or password");
         }
+        loginThrottle.succeeded(request.getUsername());
 
         // Update last login
         admin.setLastLogin(LocalDateTime.now());
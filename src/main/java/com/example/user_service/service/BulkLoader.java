@@ -0,0 +1,186 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.ImportResult;
+import com.example.user_service.entity.Course;
+import com.example.user_service.entity.Schedule;
+import com.example.user_service.entity.SearchOutboxEvent;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.stereotype.Service;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+// Writes imported rows in chunks instead of one repository.save() round trip per row.
+// Must be used inside the caller's transaction.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BulkLoader {
+
+    private static final String INSERT_SCHEDULE =
+        "INSERT INTO schedules (course_name, class_number, language, major, class_group, subtopic, "
+            + "instructor, day_of_week, periods, location, room_number, weeks, capacity, dataset_version, "
+            + "row_key, content_hash, day_index, period_mask, week_mask) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    // Key columns are equal by definition when a re-imported row matches a stored one
+    private static final String UPDATE_SCHEDULE_CONTENT =
+        "UPDATE schedules SET instructor = ?, location = ?, room_number = ?, weeks = ?, capacity = ?, "
+            + "content_hash = ?, week_mask = ? WHERE id = ?";
+
+    private static final String INSERT_COURSE =
+        "INSERT INTO courses (course_name, subtopic, theory_credits, practical_credits, total_credits, class_id) "
+            + "VALUES (?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_OUTBOX =
+        "INSERT INTO search_outbox (event_type, course_name, subtopic, attempts, created_at) "
+            + "VALUES (?, ?, ?, 0, ?)";
+
+    private static final ParameterizedPreparedStatementSetter<Schedule> SCHEDULE_BINDER = (ps, s) -> {
+        ps.setString(1, s.getCourseName());
+        ps.setObject(2, s.getClassNumber(), Types.INTEGER);
+        ps.setString(3, s.getLanguage());
+        ps.setString(4, s.getMajor());
+        ps.setString(5, s.getClassGroup());
+        ps.setString(6, s.getSubtopic());
+        ps.setString(7, s.getInstructor());
+        ps.setString(8, s.getDayOfWeek());
+        ps.setString(9, s.getPeriods());
+        ps.setString(10, s.getLocation());
+        ps.setString(11, s.getRoomNumber());
+        ps.setString(12, s.getWeeks());
+        ps.setObject(13, s.getCapacity(), Types.INTEGER);
+        ps.setObject(14, s.getDatasetVersion(), Types.BIGINT);
+        ps.setString(15, s.getRowKey());
+        ps.setString(16, s.getContentHash());
+        ps.setObject(17, s.getDayIndex(), Types.INTEGER);
+        ps.setObject(18, s.getPeriodMask(), Types.INTEGER);
+        ps.setObject(19, s.getWeekMask(), Types.BIGINT);
+    };
+
+    private static final ParameterizedPreparedStatementSetter<Schedule> SCHEDULE_CONTENT_BINDER = (ps, s) -> {
+        ps.setString(1, s.getInstructor());
+        ps.setString(2, s.getLocation());
+        ps.setString(3, s.getRoomNumber());
+        ps.setString(4, s.getWeeks());
+        ps.setObject(5, s.getCapacity(), Types.INTEGER);
+        ps.setString(6, s.getContentHash());
+        ps.setObject(7, s.getWeekMask(), Types.BIGINT);
+        ps.setLong(8, s.getId());
+    };
+
+    private static final ParameterizedPreparedStatementSetter<Course> COURSE_BINDER = (ps, c) -> {
+        ps.setString(1, c.getCourseName());
+        ps.setString(2, c.getSubtopic());
+        ps.setObject(3, c.getTheoryCredits(), Types.DOUBLE);
+        ps.setObject(4, c.getPracticalCredits(), Types.DOUBLE);
+        ps.setObject(5, c.getTotalCredits(), Types.DOUBLE);
+        ps.setLong(6, c.getClassEntity().getId());
+    };
+
+    private static final ParameterizedPreparedStatementSetter<SearchOutboxEvent> OUTBOX_BINDER = (ps, e) -> {
+        ps.setString(1, e.getType().name());
+        ps.setString(2, e.getCourseName());
+        ps.setString(3, e.getSubtopic());
+        ps.setTimestamp(4, Timestamp.valueOf(e.getCreatedAt()));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+
+    // "jdbc" sends JDBC batches (rewritten to multi-row INSERTs by the MySQL driver
+    // when rewriteBatchedStatements=true), "jpa" persists through Hibernate and
+    // flushes/clears the persistence context after every chunk
+    @Value("${import.batch.mode:jdbc}")
+    private String mode;
+
+    @Value("${import.batch.size:1000}")
+    private int batchSize;
+
+    public BatchWriter<Schedule> scheduleWriter() {
+        return new BatchWriter<>("schedules", INSERT_SCHEDULE, SCHEDULE_BINDER, entityManager::persist);
+    }
+
+    // Rewrites the content columns of schedules that already exist (id set)
+    public BatchWriter<Schedule> scheduleContentUpdater() {
+        return new BatchWriter<>("schedules", UPDATE_SCHEDULE_CONTENT, SCHEDULE_CONTENT_BINDER, entityManager::merge);
+    }
+
+    public BatchWriter<Course> courseWriter() {
+        return new BatchWriter<>("courses", INSERT_COURSE, COURSE_BINDER, entityManager::persist);
+    }
+
+    // Outbox rows must be created with createdAt set; ids keep the insertion order
+    public BatchWriter<SearchOutboxEvent> outboxWriter() {
+        return new BatchWriter<>("search_outbox", INSERT_OUTBOX, OUTBOX_BINDER, entityManager::persist);
+    }
+
+    public class BatchWriter<T> {
+        private final String table;
+        private final String sql;
+        private final ParameterizedPreparedStatementSetter<T> binder;
+        private final Consumer<T> jpaWrite;
+        private final List<T> buffer = new ArrayList<>();
+        private final long startedAt = System.nanoTime();
+        private int written;
+
+        private BatchWriter(String table, String sql, ParameterizedPreparedStatementSetter<T> binder,
+                            Consumer<T> jpaWrite) {
+            this.table = table;
+            this.sql = sql;
+            this.binder = binder;
+            this.jpaWrite = jpaWrite;
+        }
+
+        public void add(T row) {
+            buffer.add(row);
+            if (buffer.size() >= batchSize) {
+                flush();
+            }
+        }
+
+        public int getWritten() {
+            return written + buffer.size();
+        }
+
+        public ImportResult finish() {
+            flush();
+            long elapsedNanos = System.nanoTime() - startedAt;
+            long elapsedMillis = elapsedNanos / 1_000_000;
+            double rowsPerSecond = elapsedNanos > 0 ? written * 1_000_000_000.0 / elapsedNanos : 0;
+            if (written > 0) {
+                log.info("Bulk wrote {} rows to {} in {} ms ({} rows/s, mode={}, batch={})",
+                    written, table, elapsedMillis, Math.round(rowsPerSecond), mode, batchSize);
+            }
+            ImportResult result = new ImportResult();
+            result.setRecordsImported(written);
+            result.setElapsedMillis(elapsedMillis);
+            result.setRowsPerSecond(rowsPerSecond);
+            return result;
+        }
+
+        private void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            if ("jpa".equalsIgnoreCase(mode)) {
+                buffer.forEach(jpaWrite);
+                entityManager.flush();
+                entityManager.clear();
+            } else {
+                // Push pending JPA work (deletes, parent rows) ahead of the raw inserts
+                entityManager.flush();
+                jdbcTemplate.batchUpdate(sql, buffer, buffer.size(), binder);
+            }
+            written += buffer.size();
+            buffer.clear();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.SemesterCatalogDTO;
+import com.example.user_service.repository.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// Serves the student browse endpoints from memory. The snapshot is loaded on first use and keyed
+// by the course version, which every committed course import bumps before rebuilding it in the
+// background; readers arriving meanwhile wait for that build, so the ETag never runs ahead of
+// or behind what is served.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogCache {
+
+    private final AcademicYearRepository academicYearRepository;
+    private final SemesterRepository semesterRepository;
+    private final CohortRepository cohortRepository;
+    private final ClassRepository classRepository;
+    private final CourseRepository courseRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final CatalogVersion catalogVersion;
+
+    private final VersionedSnapshot<CatalogSnapshot> snapshot =
+        new VersionedSnapshot<>(this::version, this::build);
+
+    public CatalogSnapshot get() {
+        return snapshot.get();
+    }
+
+    @Async
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        catalogVersion.bumpCourses();
+        try {
+            snapshot.get();
+        } catch (Exception e) {
+            // The next request tries again
+            log.error("Failed to rebuild catalog snapshot after {}", event.source(), e);
+        }
+    }
+
+    private long version() {
+        return catalogVersion.courses();
+    }
+
+    private CatalogSnapshot build() {
+        long startedAt = System.nanoTime();
+        CatalogSnapshot built = transactionTemplate.execute(status -> {
+            // Parents first, so the eager @ManyToOne of each child resolves from the persistence context
+            return new CatalogSnapshot(
+                academicYearRepository.findAll(),
+                semesterRepository.findAll(),
+                cohortRepository.findAll(),
+                classRepository.findAll(),
+                courseRepository.findAll(),
+                this::gzipJson);
+        });
+        log.info("Catalog snapshot rebuilt with {} courses in {} ms",
+            built.getCourseCount(), (System.nanoTime() - startedAt) / 1_000_000);
+        return built;
+    }
+
+    // Serialized and compressed once per rebuild, so requests only copy bytes
+    private byte[] gzipJson(SemesterCatalogDTO tree) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            objectMapper.writeValue(gzip, tree);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+}
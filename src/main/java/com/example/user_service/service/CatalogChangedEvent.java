@@ -0,0 +1,5 @@
+package com.example.user_service.service;
+
+// Published inside a course import transaction; listeners act once it has committed
+public record CatalogChangedEvent(String source) {
+}
@@ -0,0 +1,107 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.SemesterCatalogDTO;
+import com.example.user_service.entity.AcademicYear;
+import com.example.user_service.entity.ClassEntity;
+import com.example.user_service.entity.Cohort;
+import com.example.user_service.entity.Course;
+import com.example.user_service.entity.Semester;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Read-only copy of the AcademicYear -> Semester -> Cohort -> ClassEntity -> Course tree.
+// Built once from detached entities and never modified; a rebuild replaces the whole object.
+// Each semester is also kept as one pre-encoded document for the single-shot catalog endpoint.
+public final class CatalogSnapshot {
+
+    private final List<AcademicYear> academicYears;
+    private final Map<Long, List<Semester>> semestersByYear;
+    private final Map<Long, List<Cohort>> cohortsBySemester;
+    private final Map<Long, List<ClassEntity>> classesByCohort;
+    private final Map<Long, List<Course>> coursesByClass;
+    private final Map<Long, byte[]> semesterPayloads;
+    private final LocalDateTime builtAt = LocalDateTime.now();
+
+    public CatalogSnapshot(List<AcademicYear> academicYears, List<Semester> semesters, List<Cohort> cohorts,
+                           List<ClassEntity> classes, List<Course> courses,
+                           Function<SemesterCatalogDTO, byte[]> encoder) {
+        this.academicYears = academicYears.stream()
+            .sorted(Comparator.comparing(AcademicYear::getId))
+            .toList();
+        this.semestersByYear = groupById(semesters, s -> s.getAcademicYear().getId(), Semester::getId,
+            academicYears, AcademicYear::getId);
+        this.cohortsBySemester = groupById(cohorts, c -> c.getSemester().getId(), Cohort::getId,
+            semesters, Semester::getId);
+        this.classesByCohort = groupById(classes, c -> c.getCohort().getId(), ClassEntity::getId,
+            cohorts, Cohort::getId);
+        this.coursesByClass = groupById(courses, c -> c.getClassEntity().getId(), Course::getId,
+            classes, ClassEntity::getId);
+        this.semesterPayloads = semesters.stream()
+            .collect(Collectors.toUnmodifiableMap(Semester::getId, s -> encoder.apply(semesterTree(s))));
+    }
+
+    public List<AcademicYear> getAcademicYears() {
+        return academicYears;
+    }
+
+    // Children lists are null when the parent id is unknown
+    public List<Semester> getSemesters(Long academicYearId) {
+        return semestersByYear.get(academicYearId);
+    }
+
+    public List<Cohort> getCohorts(Long semesterId) {
+        return cohortsBySemester.get(semesterId);
+    }
+
+    public List<ClassEntity> getClasses(Long cohortId) {
+        return classesByCohort.get(cohortId);
+    }
+
+    public List<Course> getCourses(Long classId) {
+        return coursesByClass.get(classId);
+    }
+
+    // Encoded semester tree, null when the semester is unknown
+    public byte[] getSemesterPayload(Long semesterId) {
+        return semesterPayloads.get(semesterId);
+    }
+
+    public int getCourseCount() {
+        return coursesByClass.values().stream().mapToInt(List::size).sum();
+    }
+
+    public LocalDateTime getBuiltAt() {
+        return builtAt;
+    }
+
+    private SemesterCatalogDTO semesterTree(Semester semester) {
+        List<SemesterCatalogDTO.CohortNode> cohortNodes = cohortsBySemester.get(semester.getId()).stream()
+            .map(cohort -> new SemesterCatalogDTO.CohortNode(cohort.getId(), cohort.getCohortCode(),
+                classesByCohort.get(cohort.getId()).stream()
+                    .map(ce -> new SemesterCatalogDTO.ClassNode(ce.getId(), ce.getClassCode(),
+                        coursesByClass.get(ce.getId()).stream()
+                            .map(c -> new SemesterCatalogDTO.CourseNode(c.getId(), c.getCourseName(), c.getSubtopic(),
+                                c.getTheoryCredits(), c.getPracticalCredits(), c.getTotalCredits()))
+                            .toList()))
+                    .toList()))
+            .toList();
+        return new SemesterCatalogDTO(semester.getId(), semester.getSemesterName(),
+            semester.getAcademicYear().getId(), semester.getAcademicYear().getYearName(), cohortNodes);
+    }
+
+    // Every parent gets an entry, so an empty list (known parent) differs from null (unknown id)
+    private static <T, P> Map<Long, List<T>> groupById(List<T> children, Function<T, Long> parentId,
+                                                       Function<T, Long> id, List<P> parents,
+                                                       Function<P, Long> parentKey) {
+        Map<Long, List<T>> grouped = children.stream()
+            .sorted(Comparator.comparing(id))
+            .collect(Collectors.groupingBy(parentId, Collectors.toUnmodifiableList()));
+        return parents.stream()
+            .map(parentKey)
+            .collect(Collectors.toUnmodifiableMap(Function.identity(), key -> grouped.getOrDefault(key, List.of())));
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.user_service.service;
+
+import org.springframework.stereotype.Component;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Versions of what the read endpoints serve, one per dataset so a change to one does not
+// throw away the read models of the other. The schedule version moves on a schedule
+// switch-over, rollback or patch and keys the lookup index, search and statistics; the course
+// version moves after each committed course import and keys the catalog snapshot. The ETag covers both.
+// The startup epoch keeps ETags from one process lifetime from matching the next.
+@Component
+public class CatalogVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong schedules = new AtomicLong();
+    private final AtomicLong courses = new AtomicLong();
+
+    public long bumpSchedules() {
+        return schedules.incrementAndGet();
+    }
+
+    public long schedules() {
+        return schedules.get();
+    }
+
+    public long bumpCourses() {
+        return courses.incrementAndGet();
+    }
+
+    public long courses() {
+        return courses.get();
+    }
+
+    public String etag() {
+        return "\"" + epoch + "-" + schedules.get() + "-" + courses.get() + "\"";
+    }
+}
@@ -1,179 +1,340 @@
 package com.example.user_service.service;
 
+import com.example.user_service.dto.ImportJobStatus;
+import com.example.user_service.dto.ImportResult;
 import com.example.user_service.entity.*;
+import com.example.user_service.parser.CourseCatalogListener;
+import com.example.user_service.parser.CourseCatalogParser;
+import com.example.user_service.parser.CourseRow;
+import com.example.user_service.parser.RowKeys;
 import com.example.user_service.repository.*;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.multipart.MultipartFile;
-import java.io.File;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class CourseImportService {
 
     private final PythonScriptService pythonScriptService;
+    private final CourseCatalogParser courseCatalogParser;
     private final AcademicYearRepository academicYearRepository;
     private final SemesterRepository semesterRepository;
     private final CohortRepository cohortRepository;
     private final ClassRepository classRepository;
     private final CourseRepository courseRepository;
-    private final RestTemplate restTemplate = new RestTemplate();
-
-    @Value("${search.service.url}")
-    private String searchServiceUrl;
-
-    @Transactional
-    public int importCourses(MultipartFile file) throws Exception {
-        // Get original file extension
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null && originalFilename.contains(".") 
-            ? originalFilename.substring(originalFilename.lastIndexOf("."))
-            : ".xlsx";
-        
-        // Save uploaded file temporarily
-        Path tempInput = Files.createTempFile("course_input_", extension);
-        Files.copy(file.getInputStream(), tempInput, StandardCopyOption.REPLACE_EXISTING);
-
-        // Process with Python script
+    private final BulkLoader bulkLoader;
+    private final SearchOutboxRepository searchOutboxRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // "java" streams the workbook in-process, "python" runs process_course.py
+    @Value("${import.parser:java}")
+    private String parserMode;
+
+    // "full" replaces the catalog, "incremental" applies only the differences
+    @Value("${import.mode:full}")
+    private String defaultMode;
+
+    // file is a local copy of the upload; fileName is the original name and decides the format
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult importCourses(Path file, String fileName, String mode, ImportProgress progress) throws Exception {
+        if ("incremental".equalsIgnoreCase(mode != null ? mode : defaultMode)) {
+            return importIncremental(file, fileName, progress);
+        }
+
+        CatalogWriter writer = new CatalogWriter(null, progress);
+        readCatalog(file, fileName, progress, () -> {
+            // Delete all old data before importing new data; a parse error rolls this back
+            deleteAllCourseData();
+        }, writer);
+
+        ImportResult result = writer.courses.finish();
+        result.setAdded(result.getRecordsImported());
+
+        // Clear the search index and re-add every course once this transaction commits
+        queueSearchUpdates(true, writer.documents);
+        eventPublisher.publishEvent(new CatalogChangedEvent("full course import"));
+        return result;
+    }
+
+    private ImportResult importIncremental(Path file, String fileName, ImportProgress progress) throws Exception {
+        long startedAt = System.nanoTime();
+
+        // Stored catalog keyed the same way the writer keys incoming rows
+        Map<String, Course> stored = new HashMap<>();
+        Set<SearchIndexClient.Document> storedDocuments = new HashSet<>();
+        Map<String, Integer> occurrences = new HashMap<>();
+        for (Course course : courseRepository.findAllWithHierarchy()) {
+            ClassEntity ce = course.getClassEntity();
+            String key = RowKeys.courseKey(
+                ce.getCohort().getSemester().getAcademicYear().getYearName(),
+                ce.getCohort().getSemester().getSemesterName(),
+                ce.getCohort().getCohortCode(),
+                ce.getClassCode(),
+                course.getCourseName(),
+                course.getSubtopic());
+            stored.put(RowKeys.withOccurrence(key, occurrences.merge(key, 1, Integer::sum)), course);
+            storedDocuments.add(new SearchIndexClient.Document(course.getCourseName(), course.getSubtopic()));
+        }
+
+        CatalogWriter writer = new CatalogWriter(stored, progress);
+        readCatalog(file, fileName, progress, () -> { }, writer);
+
+        // Whatever was not matched by the file is gone
+        List<Course> removed = new ArrayList<>(stored.values());
+        courseRepository.deleteAllInBatch(removed);
+        classRepository.deleteWithoutCourses();
+        cohortRepository.deleteWithoutClasses();
+
+        ImportResult result = writer.courses.finish();
+        result.setAdded(result.getRecordsImported());
+        result.setChanged(writer.changed);
+        result.setRemoved(removed.size());
+        result.setRecordsImported(writer.total);
+        long elapsedNanos = System.nanoTime() - startedAt;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? writer.total * 1_000_000_000.0 / elapsedNanos : 0);
+
+        syncSearchIndex(storedDocuments, writer.documents);
+        eventPublisher.publishEvent(new CatalogChangedEvent("incremental course import"));
+        return result;
+    }
+
+    // Search documents are only {courseName, subtopic}, so credit changes never touch the index.
+    // Only new documents are sent; the search service has no delete-by-document call,
+    // so a document that disappeared entirely forces a clear and a reindex of what remains.
+    private void syncSearchIndex(Set<SearchIndexClient.Document> before, Set<SearchIndexClient.Document> after) {
+        boolean anyRemoved = !after.containsAll(before);
+        List<SearchIndexClient.Document> changed = after.stream()
+            .filter(document -> anyRemoved || !before.contains(document))
+            .toList();
+        queueSearchUpdates(anyRemoved, changed);
+    }
+
+    // Written to search_outbox in the import transaction; SearchOutboxDispatcher delivers
+    // them after commit, so a rolled back import never reaches the search service
+    private void queueSearchUpdates(boolean clear, Collection<SearchIndexClient.Document> documents) {
+        LocalDateTime now = LocalDateTime.now();
+        if (clear) {
+            searchOutboxRepository.save(new SearchOutboxEvent(null, SearchOutboxEvent.Type.CLEAR,
+                null, null, 0, null, null, now));
+        }
+        BulkLoader.BatchWriter<SearchOutboxEvent> outbox = bulkLoader.outboxWriter();
+        for (SearchIndexClient.Document document : documents) {
+            outbox.add(new SearchOutboxEvent(null, SearchOutboxEvent.Type.INDEX,
+                document.courseName(), document.subtopic(), 0, null, null, now));
+        }
+        outbox.finish();
+    }
+
+    // beforeWrite runs once the input is known to be readable, right before the first event
+    private void readCatalog(Path file, String fileName, ImportProgress progress,
+                             Runnable beforeWrite, CourseCatalogListener listener) throws Exception {
+        if ("python".equalsIgnoreCase(parserMode)) {
+            importWithPython(file, progress, beforeWrite, listener);
+            return;
+        }
+        progress.stage(ImportJobStatus.Stage.LOADING);
+        beforeWrite.run();
+        try (InputStream in = Files.newInputStream(file)) {
+            courseCatalogParser.parse(in, fileName, listener);
+        }
+    }
+
+    // The uploaded copy already carries the original extension, so the script reads it directly
+    private void importWithPython(Path file, ImportProgress progress,
+                                  Runnable beforeWrite, CourseCatalogListener listener) throws Exception {
         Path tempOutput = Files.createTempFile("course_output_", ".json");
-        pythonScriptService.executeScript("process_course.py", 
-            tempInput.toString(), 
-            tempOutput.toString());
-
-        // Read JSON output
-        ObjectMapper mapper = new ObjectMapper();
-        JsonNode root = mapper.readTree(tempOutput.toFile());
-
-        // Delete all old data before importing new data
-        deleteAllCourseData();
-        
-        // Clear Elasticsearch index
-        clearElasticsearchIndex();
-
-        String academicYearName = root.get("academic_year").asText();
-        AcademicYear academicYear = academicYearRepository.findByYearName(academicYearName)
-            .orElseGet(() -> {
-                AcademicYear ay = new AcademicYear();
-                ay.setYearName(academicYearName);
-                return academicYearRepository.save(ay);
-            });
-
-        int count = 0;
-        JsonNode semesters = root.get("semesters");
-        Iterator<Map.Entry<String, JsonNode>> semesterFields = semesters.fields();
-        
+
+        try {
+            // Process with Python script
+            progress.stage(ImportJobStatus.Stage.PARSING);
+            pythonScriptService.executeScript("process_course.py", 
+                file.toString(), 
+                tempOutput.toString());
+
+            // Read JSON output
+            ObjectMapper mapper = new ObjectMapper();
+            JsonNode root = mapper.readTree(tempOutput.toFile());
+
+            progress.stage(ImportJobStatus.Stage.LOADING);
+            beforeWrite.run();
+            replayJson(root, listener);
+        } finally {
+            // Cleanup temp files
+            Files.deleteIfExists(tempOutput);
+        }
+    }
+
+    // Walks academic_year -> semesters -> cohorts -> classes -> courses of the script output
+    private void replayJson(JsonNode root, CourseCatalogListener listener) {
+        listener.onAcademicYear(root.get("academic_year").asText());
+
+        Iterator<Map.Entry<String, JsonNode>> semesterFields = root.get("semesters").fields();
         while (semesterFields.hasNext()) {
             Map.Entry<String, JsonNode> semesterEntry = semesterFields.next();
-            String semesterName = semesterEntry.getKey();
-            
-            Semester semester = semesterRepository.findBySemesterNameAndAcademicYear(semesterName, academicYear)
-                .orElseGet(() -> {
-                    Semester s = new Semester();
-                    s.setSemesterName(semesterName);
-                    s.setAcademicYear(academicYear);
-                    return semesterRepository.save(s);
-                });
+            listener.onSemester(semesterEntry.getKey());
 
-            JsonNode cohorts = semesterEntry.getValue();
-            Iterator<Map.Entry<String, JsonNode>> cohortFields = cohorts.fields();
-            
+            Iterator<Map.Entry<String, JsonNode>> cohortFields = semesterEntry.getValue().fields();
             while (cohortFields.hasNext()) {
                 Map.Entry<String, JsonNode> cohortEntry = cohortFields.next();
                 String cohortCode = cohortEntry.getKey();
-                
-                Cohort cohort = cohortRepository.findByCohortCodeAndSemester(cohortCode, semester)
-                    .orElseGet(() -> {
-                        Cohort c = new Cohort();
-                        c.setCohortCode(cohortCode);
-                        c.setSemester(semester);
-                        return cohortRepository.save(c);
-                    });
-
-                JsonNode classes = cohortEntry.getValue();
-                Iterator<Map.Entry<String, JsonNode>> classFields = classes.fields();
-                
+                listener.onCohort(cohortCode);
+
+                Iterator<Map.Entry<String, JsonNode>> classFields = cohortEntry.getValue().fields();
                 while (classFields.hasNext()) {
                     Map.Entry<String, JsonNode> classEntry = classFields.next();
                     String classCode = classEntry.getKey();
-                    
-                    ClassEntity classEntity = classRepository.findByClassCodeAndCohort(classCode, cohort)
-                        .orElseGet(() -> {
-                            ClassEntity ce = new ClassEntity();
-                            ce.setClassCode(classCode);
-                            ce.setCohort(cohort);
-                            return classRepository.save(ce);
-                        });
-
-                    JsonNode courses = classEntry.getValue();
-                    for (JsonNode courseNode : courses) {
-                        Course course = new Course();
-                        course.setCourseName(courseNode.get("course_name").asText());
-                        course.setSubtopic(courseNode.has("subtopic") ? courseNode.get("subtopic").asText() : null);
-                        course.setTheoryCredits(courseNode.get("theory_credits").asDouble());
-                        course.setPracticalCredits(courseNode.get("practical_credits").asDouble());
-                        course.setTotalCredits(courseNode.get("total_credits").asDouble());
-                        course.setClassEntity(classEntity);
-                        
-                        courseRepository.save(course);
-                        
-                        // Index to ElasticSearch
-                        indexCourseToElasticsearch(course);
-                        count++;
+                    listener.onClass(cohortCode, classCode);
+
+                    for (JsonNode courseNode : classEntry.getValue()) {
+                        JsonNode subtopic = courseNode.get("subtopic");
+                        listener.onCourse(cohortCode, classCode, new CourseRow(
+                            courseNode.get("course_name").asText(),
+                            subtopic != null && !subtopic.isNull() ? subtopic.asText() : null,
+                            courseNode.get("theory_credits").asDouble(),
+                            courseNode.get("practical_credits").asDouble(),
+                            courseNode.get("total_credits").asDouble()
+                        ));
                     }
                 }
             }
         }
+    }
 
-        // Cleanup temp files
-        Files.deleteIfExists(tempInput);
-        Files.deleteIfExists(tempOutput);
+    // Persists catalog events as they arrive; only the current parents are kept in memory.
+    // With stored courses it runs as a diff: matches are removed from the map and only
+    // rewritten when their credits changed, unmatched rows are inserted.
+    private class CatalogWriter implements CourseCatalogListener {
+        private final Map<String, Course> stored;
+        private final ImportProgress progress;
+        private final Map<String, Integer> occurrences = new HashMap<>();
+        private final Set<SearchIndexClient.Document> documents = new LinkedHashSet<>();
+        private final Map<String, Cohort> cohorts = new HashMap<>();
+        private final Map<String, ClassEntity> classes = new HashMap<>();
+        private final BulkLoader.BatchWriter<Course> courses = bulkLoader.courseWriter();
+        private AcademicYear academicYear;
+        private Semester semester;
+        private int total;
+        private int changed;
 
-        return count;
-    }
+        CatalogWriter(Map<String, Course> stored, ImportProgress progress) {
+            this.stored = stored;
+            this.progress = progress;
+        }
 
-    private void deleteAllCourseData() {
-        // Delete in reverse order of foreign key dependencies
-        courseRepository.deleteAll();
-        classRepository.deleteAll();
-        cohortRepository.deleteAll();
-        semesterRepository.deleteAll();
-        academicYearRepository.deleteAll();
-    }
-    
-    private void clearElasticsearchIndex() {
-        try {
-            String url = searchServiceUrl + "/api/courses/clear";
-            restTemplate.delete(url);
-        } catch (Exception e) {
-            // Log error but don't fail the import
-            System.err.println("Failed to clear Elasticsearch index: " + e.getMessage());
+        @Override
+        public void onAcademicYear(String yearName) {
+            academicYear = academicYearRepository.findByYearName(yearName)
+                .orElseGet(() -> {
+                    AcademicYear ay = new AcademicYear();
+                    ay.setYearName(yearName);
+                    return academicYearRepository.save(ay);
+                });
         }
-    }
 
-    private void indexCourseToElasticsearch(Course course) {
-        try {
-            String url = searchServiceUrl + "/api/courses/index";
-            
-            // Create DTO with only courseName and subtopic
-            Map<String, String> indexRequest = Map.of(
-                "courseName", course.getCourseName() != null ? course.getCourseName() : "",
-                "subtopic", course.getSubtopic() != null ? course.getSubtopic() : ""
-            );
-            
-            restTemplate.postForEntity(url, indexRequest, String.class);
-        } catch (Exception e) {
-            // Log error but don't fail the import
-            System.err.println("Failed to index course to Elasticsearch: " + e.getMessage());
+        @Override
+        public void onSemester(String semesterName) {
+            semester = semesterRepository.findBySemesterNameAndAcademicYear(semesterName, academicYear)
+                .orElseGet(() -> {
+                    Semester s = new Semester();
+                    s.setSemesterName(semesterName);
+                    s.setAcademicYear(academicYear);
+                    return semesterRepository.save(s);
+                });
+            cohorts.clear();
+            classes.clear();
         }
+
+        @Override
+        public void onCohort(String cohortCode) {
+            cohorts.computeIfAbsent(cohortCode, code -> cohortRepository.findByCohortCodeAndSemester(code, semester)
+                .orElseGet(() -> {
+                    Cohort c = new Cohort();
+                    c.setCohortCode(code);
+                    c.setSemester(semester);
+                    return cohortRepository.save(c);
+                }));
+        }
+
+        @Override
+        public void onClass(String cohortCode, String classCode) {
+            Cohort cohort = cohorts.get(cohortCode);
+            classes.computeIfAbsent(cohortCode + "/" + classCode, key -> classRepository.findByClassCodeAndCohort(classCode, cohort)
+                .orElseGet(() -> {
+                    ClassEntity ce = new ClassEntity();
+                    ce.setClassCode(classCode);
+                    ce.setCohort(cohort);
+                    return classRepository.save(ce);
+                }));
+        }
+
+        @Override
+        public void onCourse(String cohortCode, String classCode, CourseRow row) {
+            total++;
+            progress.rowProcessed();
+            if (stored != null) {
+                String key = RowKeys.courseKey(academicYear.getYearName(), semester.getSemesterName(),
+                    cohortCode, classCode, row.getCourseName(), row.getSubtopic());
+                Course existing = stored.remove(RowKeys.withOccurrence(key, occurrences.merge(key, 1, Integer::sum)));
+                if (existing != null) {
+                    documents.add(new SearchIndexClient.Document(existing.getCourseName(), existing.getSubtopic()));
+                    updateCredits(existing, row);
+                    return;
+                }
+            }
+
+            Course course = new Course();
+            course.setCourseName(row.getCourseName());
+            course.setSubtopic(row.getSubtopic());
+            course.setTheoryCredits(row.getTheoryCredits());
+            course.setPracticalCredits(row.getPracticalCredits());
+            course.setTotalCredits(row.getTotalCredits());
+            course.setClassEntity(classes.get(cohortCode + "/" + classCode));
+
+            courses.add(course);
+
+            documents.add(new SearchIndexClient.Document(course.getCourseName(), course.getSubtopic()));
+        }
+
+        private void updateCredits(Course existing, CourseRow row) {
+            String storedHash = RowKeys.courseContentHash(
+                existing.getTheoryCredits(), existing.getPracticalCredits(), existing.getTotalCredits());
+            String newHash = RowKeys.courseContentHash(
+                row.getTheoryCredits(), row.getPracticalCredits(), row.getTotalCredits());
+            if (!storedHash.equals(newHash)) {
+                existing.setTheoryCredits(row.getTheoryCredits());
+                existing.setPracticalCredits(row.getPracticalCredits());
+                existing.setTotalCredits(row.getTotalCredits());
+                courseRepository.save(existing);
+                changed++;
+            }
+        }
+    }
+
+    private void deleteAllCourseData() {
+        // Delete in reverse order of foreign key dependencies, one statement per table
+        courseRepository.deleteAllInBatch();
+        classRepository.deleteAllInBatch();
+        cohortRepository.deleteAllInBatch();
+        semesterRepository.deleteAllInBatch();
+        academicYearRepository.deleteAllInBatch();
     }
 }
@@ -0,0 +1,305 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.SearchSuggestion;
+import com.example.user_service.entity.Schedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+
+// In-memory search over the active schedules: course names with their subtopics, and instructors.
+// All text is folded (lower case, diacritics stripped, đ -> d) so "lap trinh" finds "Lập trình".
+// Autocomplete binary-searches a sorted token array for each typed word; fuzzy search ranks by
+// shared trigrams. Rebuilt after each schedule import and whenever the schedule version moves.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CourseSearchIndex {
+
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern NON_WORD = Pattern.compile("[^a-z0-9]+");
+    private static final double MIN_SIMILARITY = 0.3;
+
+    private record Entry(SearchSuggestion suggestion, String folded, String[] words, int trigramCount) {
+    }
+
+    // tokens is sorted; tokenEntries[i] lists the entries containing tokens[i].
+    // courseNames/foldedCourseNames back the admin course filter.
+    private record Snapshot(Entry[] entries, String[] tokens, int[][] tokenEntries,
+                            Map<String, int[]> trigrams, String[] courseNames, String[] foldedCourseNames) {
+    }
+
+    private final ScheduleLookupIndex scheduleLookupIndex;
+    private final CatalogVersion catalogVersion;
+
+    private final VersionedSnapshot<Snapshot> snapshot =
+        new VersionedSnapshot<>(this::version, this::build);
+
+    // Every typed word must start a word of the entry, in any order: "trinh lap" finds "Lập trình"
+    public List<SearchSuggestion> autocomplete(String query, int limit) {
+        Snapshot current = snapshot.get();
+        String folded = fold(query);
+        String[] terms = words(folded);
+        if (terms.length == 0) {
+            return List.of();
+        }
+
+        // Postings of the most selective word only, the other words are checked per candidate
+        int rarest = 0;
+        long fewest = Long.MAX_VALUE;
+        for (int t = 0; t < terms.length; t++) {
+            long postings = prefixPostings(current, terms[t]);
+            if (postings < fewest) {
+                fewest = postings;
+                rarest = t;
+            }
+        }
+        BitSet candidates = prefixMatches(current, terms[rarest]);
+        for (int t = 0; t < terms.length; t++) {
+            if (t == rarest) {
+                continue;
+            }
+            for (int i = candidates.nextSetBit(0); i >= 0; i = candidates.nextSetBit(i + 1)) {
+                if (!hasWordStartingWith(current.entries()[i], terms[t])) {
+                    candidates.clear(i);
+                }
+            }
+        }
+
+        // Entries are stored in display order, so whole-text prefix matches go first and the
+        // rest fill up what is left: no sorting per request
+        Entry[] entries = current.entries();
+        List<SearchSuggestion> hits = new ArrayList<>(limit);
+        for (int i = candidates.nextSetBit(0); i >= 0 && hits.size() < limit; i = candidates.nextSetBit(i + 1)) {
+            if (entries[i].folded().startsWith(folded)) {
+                hits.add(copy(entries[i].suggestion(), 0));
+            }
+        }
+        for (int i = candidates.nextSetBit(0); i >= 0 && hits.size() < limit; i = candidates.nextSetBit(i + 1)) {
+            if (!entries[i].folded().startsWith(folded)) {
+                hits.add(copy(entries[i].suggestion(), 0));
+            }
+        }
+        return hits;
+    }
+
+    // Typos and missing words: Dice similarity of the query's trigrams and the entry's
+    public List<SearchSuggestion> fuzzy(String query, int limit) {
+        Snapshot current = snapshot.get();
+        Set<String> grams = trigrams(fold(query));
+        if (grams.isEmpty()) {
+            return List.of();
+        }
+
+        int[] shared = new int[current.entries().length];
+        for (String gram : grams) {
+            int[] postings = current.trigrams().get(gram);
+            if (postings != null) {
+                for (int entry : postings) {
+                    shared[entry]++;
+                }
+            }
+        }
+
+        // Top-K kept in two small arrays sorted by similarity, best first; on ties the
+        // earlier (busier) entry stays ahead
+        Entry[] entries = current.entries();
+        int[] best = new int[limit];
+        double[] bestSimilarity = new double[limit];
+        int found = 0;
+        for (int i = 0; i < shared.length; i++) {
+            if (shared[i] == 0) {
+                continue;
+            }
+            double similarity = 2.0 * shared[i] / (grams.size() + entries[i].trigramCount());
+            if (similarity < MIN_SIMILARITY || (found == limit && similarity <= bestSimilarity[limit - 1])) {
+                continue;
+            }
+            int slot = found < limit ? found++ : limit - 1;
+            while (slot > 0 && bestSimilarity[slot - 1] < similarity) {
+                best[slot] = best[slot - 1];
+                bestSimilarity[slot] = bestSimilarity[slot - 1];
+                slot--;
+            }
+            best[slot] = i;
+            bestSimilarity[slot] = similarity;
+        }
+
+        List<SearchSuggestion> hits = new ArrayList<>(found);
+        for (int n = 0; n < found; n++) {
+            hits.add(copy(entries[best[n]].suggestion(), bestSimilarity[n]));
+        }
+        return hits;
+    }
+
+    // Exact course names whose folded form contains the folded fragment
+    public Set<String> matchingCourseNames(String fragment) {
+        Snapshot current = snapshot.get();
+        String folded = fold(fragment).strip();
+        Set<String> names = new LinkedHashSet<>();
+        for (int i = 0; i < current.courseNames().length; i++) {
+            if (current.foldedCourseNames()[i].contains(folded)) {
+                names.add(current.courseNames()[i]);
+            }
+        }
+        return names;
+    }
+
+    public void rebuild() {
+        snapshot.rebuild();
+    }
+
+    private long version() {
+        return catalogVersion.schedules();
+    }
+
+    private Snapshot build() {
+        long startedAt = System.nanoTime();
+
+        List<Entry> entries = new ArrayList<>();
+        Map<String, Integer> instructors = new LinkedHashMap<>();
+        Map<String, SearchSuggestion> instructorSuggestions = new HashMap<>();
+        Map<String, String> courseNames = new TreeMap<>();
+        for (List<Schedule> section : scheduleLookupIndex.sections()) {
+            Schedule first = section.get(0);
+            SearchSuggestion course = new SearchSuggestion(SearchSuggestion.Type.COURSE,
+                first.getCourseName(), blankToNull(first.getSubtopic()), null, section.size(), 0);
+            entries.add(entry(course, first.getCourseName() + " " + (course.getSubtopic() != null ? course.getSubtopic() : "")));
+            courseNames.putIfAbsent(first.getCourseName(), fold(first.getCourseName()));
+
+            for (Schedule row : section) {
+                if (row.getInstructor() == null || row.getInstructor().isBlank()) {
+                    continue;
+                }
+                String key = fold(row.getInstructor()).strip();
+                instructors.merge(key, 1, Integer::sum);
+                instructorSuggestions.putIfAbsent(key, new SearchSuggestion(SearchSuggestion.Type.INSTRUCTOR,
+                    null, null, row.getInstructor().strip(), 0, 0));
+            }
+        }
+        instructors.forEach((key, count) -> {
+            SearchSuggestion instructor = instructorSuggestions.get(key);
+            instructor.setSections(count);
+            entries.add(entry(instructor, instructor.getInstructor()));
+        });
+
+        // Display order: courses before instructors, busiest first
+        entries.sort(Comparator
+            .comparing((Entry e) -> e.suggestion().getType())
+            .thenComparing(e -> -e.suggestion().getSections())
+            .thenComparing(Entry::folded));
+
+        TreeMap<String, List<Integer>> tokenPostings = new TreeMap<>();
+        Map<String, List<Integer>> trigramPostings = new HashMap<>();
+        for (int i = 0; i < entries.size(); i++) {
+            Entry entry = entries.get(i);
+            for (String token : new LinkedHashSet<>(Arrays.asList(entry.words()))) {
+                tokenPostings.computeIfAbsent(token, t -> new ArrayList<>()).add(i);
+            }
+            for (String gram : trigrams(entry.folded())) {
+                trigramPostings.computeIfAbsent(gram, g -> new ArrayList<>()).add(i);
+            }
+        }
+
+        String[] tokens = tokenPostings.keySet().toArray(String[]::new);
+        int[][] tokenEntries = tokenPostings.values().stream().map(CourseSearchIndex::toArray).toArray(int[][]::new);
+        Map<String, int[]> trigrams = new HashMap<>(trigramPostings.size() * 2);
+        trigramPostings.forEach((gram, postings) -> trigrams.put(gram, toArray(postings)));
+
+        log.info("Course search index rebuilt: {} entries, {} tokens, {} trigrams in {} ms",
+            entries.size(), tokens.length, trigrams.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return new Snapshot(entries.toArray(Entry[]::new), tokens, tokenEntries, Map.copyOf(trigrams),
+            courseNames.keySet().toArray(String[]::new), courseNames.values().toArray(String[]::new));
+    }
+
+    // "Lập Trình  Đa nền tảng" -> "lap trinh  da nen tang"
+    public static String fold(String text) {
+        if (text == null) {
+            return "";
+        }
+        String stripped = COMBINING_MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("");
+        return stripped.replace('đ', 'd').replace('Đ', 'D').toLowerCase(Locale.ROOT);
+    }
+
+    // Tokens starting with term are one run of the sorted array, found by binary search
+    private static int firstToken(String[] tokens, String term) {
+        int from = Arrays.binarySearch(tokens, term);
+        return from < 0 ? -from - 1 : from;
+    }
+
+    private static long prefixPostings(Snapshot snapshot, String term) {
+        String[] tokens = snapshot.tokens();
+        long postings = 0;
+        for (int i = firstToken(tokens, term); i < tokens.length && tokens[i].startsWith(term); i++) {
+            postings += snapshot.tokenEntries()[i].length;
+        }
+        return postings;
+    }
+
+    private static BitSet prefixMatches(Snapshot snapshot, String term) {
+        BitSet matches = new BitSet(snapshot.entries().length);
+        String[] tokens = snapshot.tokens();
+        for (int i = firstToken(tokens, term); i < tokens.length && tokens[i].startsWith(term); i++) {
+            for (int entry : snapshot.tokenEntries()[i]) {
+                matches.set(entry);
+            }
+        }
+        return matches;
+    }
+
+    private static boolean hasWordStartingWith(Entry entry, String term) {
+        for (String word : entry.words()) {
+            if (word.startsWith(term)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Entry entry(SearchSuggestion suggestion, String text) {
+        String folded = fold(text).strip();
+        return new Entry(suggestion, folded, words(folded), trigrams(folded).size());
+    }
+
+    private static String[] words(String folded) {
+        return Arrays.stream(NON_WORD.split(folded)).filter(w -> !w.isEmpty()).toArray(String[]::new);
+    }
+
+    // Each word padded like "  word " so beginnings weigh more than endings
+    private static Set<String> trigrams(String folded) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String word : words(folded)) {
+            String padded = "  " + word + " ";
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(padded.substring(i, i + 3));
+            }
+        }
+        return grams;
+    }
+
+    private static SearchSuggestion copy(SearchSuggestion suggestion, double score) {
+        return new SearchSuggestion(suggestion.getType(), suggestion.getCourseName(), suggestion.getSubtopic(),
+            suggestion.getInstructor(), suggestion.getSections(), score);
+    }
+
+    private static int[] toArray(List<Integer> values) {
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value;
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.user_service.service;
+
+import com.example.user_service.entity.DatasetPointer;
+import com.example.user_service.entity.DatasetVersion;
+import com.example.user_service.repository.DatasetPointerRepository;
+import com.example.user_service.repository.DatasetVersionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Imports write into a fresh dataset version while readers keep using the active one.
+// Switching over (or back) only updates the single pointer row.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DatasetVersionService {
+
+    public static final String SCHEDULES = "schedules";
+
+    // Dataset name -> table holding its versioned rows
+    private static final Map<String, String> TABLES = Map.of(SCHEDULES, "schedules");
+    private static final int GC_CHUNK_SIZE = 5000;
+
+    private final DatasetVersionRepository datasetVersionRepository;
+    private final DatasetPointerRepository datasetPointerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final CatalogVersion catalogVersion;
+
+    // Readers resolve the active version from memory; refreshed after every switch
+    private final Map<String, Long> activeVersions = new ConcurrentHashMap<>();
+
+    public long activeVersion(String dataset) {
+        return activeVersions.computeIfAbsent(dataset, d -> datasetPointerRepository.findById(d)
+            .map(DatasetPointer::getActiveVersion)
+            .orElse(0L));
+    }
+
+    public List<DatasetVersion> getVersions(String dataset) {
+        return datasetVersionRepository.findByDatasetOrderByIdDesc(dataset);
+    }
+
+    @Transactional
+    public long beginLoad(String dataset) {
+        DatasetVersion version = new DatasetVersion();
+        version.setDataset(dataset);
+        version.setStatus(DatasetVersion.Status.LOADING);
+        return datasetVersionRepository.save(version).getId();
+    }
+
+    @Transactional
+    public void markFailed(long versionId) {
+        datasetVersionRepository.findById(versionId).ifPresent(version -> {
+            version.setStatus(DatasetVersion.Status.FAILED);
+            datasetVersionRepository.save(version);
+        });
+    }
+
+    @Transactional
+    public void activate(String dataset, long versionId, int rowCount) {
+        DatasetVersion loaded = datasetVersionRepository.findById(versionId)
+            .orElseThrow(() -> new RuntimeException("Dataset version not found"));
+        if (loaded.getStatus() != DatasetVersion.Status.LOADING) {
+            throw new RuntimeException("Dataset version " + versionId + " is " + loaded.getStatus());
+        }
+
+        DatasetPointer pointer = lockPointer(dataset);
+        if (pointer.getActiveVersion() != null) {
+            datasetVersionRepository.findById(pointer.getActiveVersion()).ifPresent(previous -> {
+                previous.setStatus(DatasetVersion.Status.READY);
+                datasetVersionRepository.save(previous);
+            });
+        }
+
+        loaded.setStatus(DatasetVersion.Status.ACTIVE);
+        loaded.setRowCount(rowCount);
+        loaded.setActivatedAt(LocalDateTime.now());
+        datasetVersionRepository.save(loaded);
+
+        switchTo(pointer, versionId, pointer.getActiveVersion());
+        log.info("Dataset {} switched to version {} ({} rows)", dataset, versionId, rowCount);
+    }
+
+    // Swaps the active and previous versions; the previous rows are still in place
+    @Transactional
+    public long rollback(String dataset) {
+        DatasetPointer pointer = lockPointer(dataset);
+        Long previousId = pointer.getPreviousVersion();
+        DatasetVersion previous = previousId != null
+            ? datasetVersionRepository.findById(previousId).orElse(null)
+            : null;
+        if (previous == null || previous.getStatus() != DatasetVersion.Status.READY) {
+            throw new RuntimeException("No previous version available for " + dataset);
+        }
+
+        Long currentId = pointer.getActiveVersion();
+        datasetVersionRepository.findById(currentId).ifPresent(current -> {
+            current.setStatus(DatasetVersion.Status.READY);
+            datasetVersionRepository.save(current);
+        });
+        previous.setStatus(DatasetVersion.Status.ACTIVE);
+        previous.setActivatedAt(LocalDateTime.now());
+        datasetVersionRepository.save(previous);
+
+        switchTo(pointer, previousId, currentId);
+        log.info("Dataset {} rolled back from version {} to {}", dataset, currentId, previousId);
+        return previousId;
+    }
+
+    // Deletes rows of every version that is neither active, previous nor still loading.
+    // Works in small auto-committed chunks so readers and the next import never wait on it.
+    @Async
+    public void collectGarbage(String dataset) {
+        String table = TABLES.get(dataset);
+        DatasetPointer pointer = datasetPointerRepository.findById(dataset).orElse(null);
+        if (table == null || pointer == null) {
+            return;
+        }
+
+        Set<Long> keep = new HashSet<>();
+        keep.add(pointer.getActiveVersion());
+        keep.add(pointer.getPreviousVersion());
+
+        List<DatasetVersion> candidates = datasetVersionRepository.findByDatasetAndStatusIn(dataset,
+            List.of(DatasetVersion.Status.READY, DatasetVersion.Status.FAILED));
+        for (DatasetVersion version : candidates) {
+            if (keep.contains(version.getId())) {
+                continue;
+            }
+            long deleted = 0;
+            int affected;
+            do {
+                affected = jdbcTemplate.update(
+                    "DELETE FROM " + table + " WHERE dataset_version = ? LIMIT " + GC_CHUNK_SIZE, version.getId());
+                deleted += affected;
+            } while (affected > 0);
+
+            version.setStatus(DatasetVersion.Status.COLLECTED);
+            datasetVersionRepository.save(version);
+            log.info("Collected {} rows of {} version {}", deleted, dataset, version.getId());
+        }
+    }
+
+    // One-time adoption of rows written before versioning existed
+    @Transactional
+    public void adoptUnversionedRows(String dataset) {
+        String table = TABLES.get(dataset);
+        Integer unversioned = jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM " + table + " WHERE dataset_version IS NULL", Integer.class);
+        if (unversioned == null || unversioned == 0 || datasetPointerRepository.existsById(dataset)) {
+            return;
+        }
+
+        long versionId = beginLoad(dataset);
+        jdbcTemplate.update("UPDATE " + table + " SET dataset_version = ? WHERE dataset_version IS NULL", versionId);
+        activate(dataset, versionId, unversioned);
+    }
+
+    private DatasetPointer lockPointer(String dataset) {
+        return datasetPointerRepository.findForUpdate(dataset).orElseGet(() -> {
+            DatasetPointer pointer = new DatasetPointer();
+            pointer.setDataset(dataset);
+            return pointer;
+        });
+    }
+
+    private void switchTo(DatasetPointer pointer, Long activeVersion, Long previousVersion) {
+        pointer.setActiveVersion(activeVersion);
+        pointer.setPreviousVersion(previousVersion);
+        pointer.setUpdatedAt(LocalDateTime.now());
+        datasetPointerRepository.save(pointer);
+
+        // Publish to readers only once the pointer row is committed
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                activeVersions.put(pointer.getDataset(), activeVersion);
+                catalogVersion.bumpSchedules();
+            }
+        });
+    }
+}
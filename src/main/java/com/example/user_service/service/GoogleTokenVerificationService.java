@@ -0,0 +1,180 @@
+package com.example.user_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdTokenVerifier;
+import com.google.api.client.googleapis.auth.oauth2.GooglePublicKeysManager;
+import com.google.api.client.http.javanet.NetHttpTransport;
+import com.google.api.client.json.JsonFactory;
+import com.google.api.client.json.gson.GsonFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.cert.CertificateFactory;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// Verifies Google Sign-In ID tokens with one shared verifier. Google's signing keys are kept by
+// GooglePublicKeysManager until their Cache-Control max-age runs out, so logins do not fetch
+// certificates or open a TLS connection. Verified payloads are also cached for a short while,
+// keyed by the SHA-256 of the token (never past the token's own expiry), so a client retrying
+// the same credential is answered from memory. Metrics: cache.* {cache=google.id_tokens}
+//
+// With google.token.local-keys pointing at a PEM file (certificates or public keys) tokens are
+// checked against those keys instead of Google's: self-signed tokens for offline load tests.
+@Service
+@Slf4j
+public class GoogleTokenVerificationService {
+
+    private static final JsonFactory JSON_FACTORY = GsonFactory.getDefaultInstance();
+    private static final Pattern PEM_BLOCK =
+        Pattern.compile("-----BEGIN ([A-Z ]+)-----([A-Za-z0-9+/=\\s]+)-----END \\1-----");
+
+    private final GoogleIdTokenVerifier verifier;
+    private final Cache<String, GoogleIdToken.Payload> verified;
+
+    public GoogleTokenVerificationService(MeterRegistry meterRegistry,
+                                          @Value("${spring.security.oauth2.client.registration.google.client-id:}") String clientId,
+                                          @Value("${google.token.local-keys:}") String localKeys,
+                                          @Value("${google.token.result-cache.max-size:10000}") long maxSize,
+                                          @Value("${google.token.result-cache.ttl-ms:300000}") long ttlMillis)
+            throws IOException, GeneralSecurityException {
+        GooglePublicKeysManager keys = new GooglePublicKeysManager(new NetHttpTransport(), JSON_FACTORY);
+        if (localKeys == null || localKeys.isBlank()) {
+            this.verifier = new GoogleIdTokenVerifier.Builder(keys).setAudience(List.of(clientId)).build();
+        } else {
+            List<PublicKey> publicKeys = readPem(Files.readString(Path.of(localKeys)));
+            log.warn("Verifying Google ID tokens against {} local key(s) from {}, not Google's", publicKeys.size(), localKeys);
+            this.verifier = new LocalKeysVerifier(new GoogleIdTokenVerifier.Builder(keys).setAudience(List.of(clientId)), publicKeys);
+        }
+
+        long ttlNanos = ttlMillis * 1_000_000;
+        this.verified = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfter(new Expiry<String, GoogleIdToken.Payload>() {
+                @Override
+                public long expireAfterCreate(String key, GoogleIdToken.Payload payload, long currentTime) {
+                    Long expiresAt = payload.getExpirationTimeSeconds();
+                    if (expiresAt == null) {
+                        return ttlNanos;
+                    }
+                    long remainingNanos = (expiresAt * 1000 - System.currentTimeMillis()) * 1_000_000;
+                    return Math.max(0, Math.min(ttlNanos, remainingNanos));
+                }
+
+                @Override
+                public long expireAfterUpdate(String key, GoogleIdToken.Payload payload, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+
+                @Override
+                public long expireAfterRead(String key, GoogleIdToken.Payload payload, long currentTime, long currentDuration) {
+                    return currentDuration;
+                }
+            })
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "google.id_tokens");
+    }
+
+    // The token's payload, or null when the token is malformed, expired, for another audience
+    // or badly signed. Failures are not cached. Verification may refresh Google's certificates
+    // over HTTPS, so it runs outside the cache: a compute would hold the map's bin lock (and pin a
+    // virtual thread's carrier) for the whole fetch. Two concurrent misses for one token both verify.
+    public GoogleIdToken.Payload verify(String credential) {
+        String key = sha256(credential);
+        GoogleIdToken.Payload payload = verified.getIfPresent(key);
+        if (payload != null) {
+            return payload;
+        }
+
+        GoogleIdToken idToken;
+        try {
+            idToken = GoogleIdToken.parse(JSON_FACTORY, credential);
+        } catch (IOException | IllegalArgumentException e) {
+            // Not a JWS at all
+            return null;
+        }
+        try {
+            if (!verifier.verify(idToken)) {
+                return null;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Could not verify Google ID token", e);
+        }
+        verified.put(key, idToken.getPayload());
+        return idToken.getPayload();
+    }
+
+    static List<PublicKey> readPem(String pem) throws GeneralSecurityException {
+        List<PublicKey> keys = new ArrayList<>();
+        Matcher block = PEM_BLOCK.matcher(pem);
+        while (block.find()) {
+            byte[] der = Base64.getMimeDecoder().decode(block.group(2));
+            switch (block.group(1)) {
+                case "CERTIFICATE" -> keys.add(CertificateFactory.getInstance("X.509")
+                    .generateCertificate(new ByteArrayInputStream(der)).getPublicKey());
+                case "PUBLIC KEY" -> keys.add(KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(der)));
+                default -> throw new GeneralSecurityException("Unsupported PEM block: " + block.group(1));
+            }
+        }
+        if (keys.isEmpty()) {
+            throw new GeneralSecurityException("No certificate or public key in PEM");
+        }
+        return keys;
+    }
+
+    private static String sha256(String credential) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(credential.getBytes(StandardCharsets.UTF_8)));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // Same payload checks (issuer, audience, expiry), signature checked against fixed keys
+    private static final class LocalKeysVerifier extends GoogleIdTokenVerifier {
+
+        private final List<PublicKey> publicKeys;
+
+        private LocalKeysVerifier(GoogleIdTokenVerifier.Builder builder, List<PublicKey> publicKeys) {
+            super(builder);
+            this.publicKeys = publicKeys;
+        }
+
+        @Override
+        public boolean verify(GoogleIdToken idToken) throws GeneralSecurityException {
+            if (!verifyPayload(idToken)) {
+                return false;
+            }
+            for (PublicKey key : publicKeys) {
+                if (idToken.verifySignature(key)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.ImportJobStatus;
+import com.example.user_service.dto.ImportResult;
+import lombok.Getter;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Live state of one submitted import; the worker thread writes, status requests read
+@Getter
+public class ImportJob implements ImportProgress {
+
+    private final String id;
+    private final String dataset;
+    private final String fileName;
+    private final String mode;
+    private final Path file;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final CompletableFuture<ImportResult> completion = new CompletableFuture<>();
+
+    private final AtomicLong rowsProcessed = new AtomicLong();
+    private final List<String> errors = new CopyOnWriteArrayList<>();
+    private volatile ImportJobStatus.Stage stage = ImportJobStatus.Stage.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private volatile ImportResult result;
+
+    ImportJob(String id, String dataset, String fileName, String mode, Path file) {
+        this.id = id;
+        this.dataset = dataset;
+        this.fileName = fileName;
+        this.mode = mode;
+        this.file = file;
+    }
+
+    @Override
+    public void stage(ImportJobStatus.Stage stage) {
+        if (startedAt == null && stage != ImportJobStatus.Stage.QUEUED && stage != ImportJobStatus.Stage.WAITING_FOR_DATASET) {
+            startedNanos = System.nanoTime();
+            startedAt = LocalDateTime.now();
+        }
+        this.stage = stage;
+    }
+
+    @Override
+    public void rowProcessed() {
+        rowsProcessed.incrementAndGet();
+    }
+
+    void complete(ImportResult result) {
+        this.result = result;
+        finish(ImportJobStatus.Stage.COMPLETED);
+        completion.complete(result);
+    }
+
+    void fail(Throwable error) {
+        errors.add(error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName());
+        finish(ImportJobStatus.Stage.FAILED);
+        completion.completeExceptionally(error);
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    public ImportJobStatus toStatus() {
+        ImportJobStatus status = new ImportJobStatus();
+        status.setId(id);
+        status.setDataset(dataset);
+        status.setFileName(fileName);
+        status.setMode(mode);
+        status.setStage(stage);
+        status.setRowsProcessed(rowsProcessed.get());
+        status.setRowsPerSecond(rowsPerSecond());
+        status.setSubmittedAt(submittedAt);
+        status.setStartedAt(startedAt);
+        status.setFinishedAt(finishedAt);
+        status.setErrors(List.copyOf(errors));
+        status.setResult(result);
+        return status;
+    }
+
+    private void finish(ImportJobStatus.Stage finalStage) {
+        finishedNanos = System.nanoTime();
+        finishedAt = LocalDateTime.now();
+        stage = finalStage;
+    }
+
+    private double rowsPerSecond() {
+        if (startedAt == null) {
+            return 0;
+        }
+        long end = finishedAt != null ? finishedNanos : System.nanoTime();
+        long elapsed = end - startedNanos;
+        return elapsed > 0 ? rowsProcessed.get() * 1_000_000_000.0 / elapsed : 0;
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.ImportJobStatus;
+import com.example.user_service.dto.ImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Runs uploads in the background so the request returns as soon as the file is on disk.
+// A semaphore caps how many imports run at once; a per-dataset lock keeps two imports
+// of the same dataset from interleaving their writes.
+@Service
+@Slf4j
+public class ImportJobService {
+
+    public static final String COURSES = "courses";
+
+    private final ScheduleImportService scheduleImportService;
+    private final CourseImportService courseImportService;
+    private final ExecutorService importExecutor;
+    private final Semaphore permits;
+    private final long retentionMinutes;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReentrantLock> datasetLocks = new ConcurrentHashMap<>();
+
+    public ImportJobService(ScheduleImportService scheduleImportService,
+                            CourseImportService courseImportService,
+                            @Qualifier("importExecutor") ExecutorService importExecutor,
+                            @Value("${import.jobs.max-concurrent:2}") int maxConcurrent,
+                            @Value("${import.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.scheduleImportService = scheduleImportService;
+        this.courseImportService = courseImportService;
+        this.importExecutor = importExecutor;
+        this.permits = new Semaphore(maxConcurrent, true);
+        this.retentionMinutes = retentionMinutes;
+    }
+
+    public ImportJob submitScheduleImport(MultipartFile file, String mode) throws IOException {
+        return submit(DatasetVersionService.SCHEDULES, file, mode);
+    }
+
+    public ImportJob submitCourseImport(MultipartFile file, String mode) throws IOException {
+        return submit(COURSES, file, mode);
+    }
+
+    public Optional<ImportJobStatus> getStatus(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(ImportJob::toStatus);
+    }
+
+    public List<ImportJobStatus> getRecent() {
+        return jobs.values().stream()
+            .sorted(Comparator.comparing(ImportJob::getSubmittedAt).reversed())
+            .map(ImportJob::toStatus)
+            .toList();
+    }
+
+    private ImportJob submit(String dataset, MultipartFile file, String mode) throws IOException {
+        evictFinishedJobs();
+
+        // The multipart temp file is gone once the request ends, keep our own copy
+        String originalFilename = file.getOriginalFilename();
+        String extension = originalFilename != null && originalFilename.contains(".")
+            ? originalFilename.substring(originalFilename.lastIndexOf("."))
+            : ".xlsx";
+        Path saved = Files.createTempFile(dataset + "_import_", extension);
+        file.transferTo(saved);
+
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), dataset, originalFilename, mode, saved);
+        jobs.put(job.getId(), job);
+        importExecutor.execute(() -> run(job));
+        return job;
+    }
+
+    private void run(ImportJob job) {
+        ReentrantLock lock = datasetLocks.computeIfAbsent(job.getDataset(), d -> new ReentrantLock(true));
+        try {
+            // Dataset lock first: a job queued behind another import of its own dataset
+            // must not sit on a permit that an import of the other dataset could use
+            job.stage(ImportJobStatus.Stage.WAITING_FOR_DATASET);
+            lock.lockInterruptibly();
+            try {
+                job.stage(ImportJobStatus.Stage.QUEUED);
+                permits.acquire();
+                try {
+                    job.complete(execute(job));
+                    log.info("Import job {} ({}) finished: {}", job.getId(), job.getDataset(), job.getResult());
+                } finally {
+                    permits.release();
+                }
+            } finally {
+                lock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail(e);
+        } catch (Exception e) {
+            log.warn("Import job {} ({}) failed", job.getId(), job.getDataset(), e);
+            job.fail(e);
+        } finally {
+            try {
+                Files.deleteIfExists(job.getFile());
+            } catch (IOException e) {
+                log.warn("Could not delete {}", job.getFile(), e);
+            }
+        }
+    }
+
+    private ImportResult execute(ImportJob job) throws Exception {
+        if (COURSES.equals(job.getDataset())) {
+            return courseImportService.importCourses(job.getFile(), job.getFileName(), job.getMode(), job);
+        }
+        return scheduleImportService.importSchedule(job.getFile(), job.getFileName(), job.getMode(), job);
+    }
+
+    private void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.ImportJobStatus;
+
+// Callback the import services report to while a file is being processed
+public interface ImportProgress {
+
+    ImportProgress NONE = new ImportProgress() {
+        @Override
+        public void stage(ImportJobStatus.Stage stage) {
+        }
+
+        @Override
+        public void rowProcessed() {
+        }
+    };
+
+    void stage(ImportJobStatus.Stage stage);
+
+    void rowProcessed();
+}
@@ -0,0 +1,70 @@
+package com.example.user_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Fixed-window limits on admin login attempts per username and per client address, checked
+// before any BCrypt work so a credential-stuffing run is turned away cheaply. A window starts
+// with the first attempt and the entry expires with it. Metric: admin.login.throttled{by=username|ip}
+@Service
+public class LoginThrottle {
+
+    private final Cache<String, AtomicInteger> attemptsByUsername;
+    private final Cache<String, AtomicInteger> attemptsByIp;
+    private final int maxPerUsername;
+    private final int maxPerIp;
+    private final Duration window;
+    private final Counter throttledByUsername;
+    private final Counter throttledByIp;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${admin.login.throttle.max-per-username:10}") int maxPerUsername,
+                         @Value("${admin.login.throttle.max-per-ip:30}") int maxPerIp,
+                         @Value("${admin.login.throttle.window-ms:60000}") long windowMillis) {
+        this.maxPerUsername = maxPerUsername;
+        this.maxPerIp = maxPerIp;
+        this.window = Duration.ofMillis(windowMillis);
+        this.attemptsByUsername = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build();
+        this.attemptsByIp = Caffeine.newBuilder().maximumSize(100_000).expireAfterWrite(window).build();
+        this.throttledByUsername = meterRegistry.counter("admin.login.throttled", "by", "username");
+        this.throttledByIp = meterRegistry.counter("admin.login.throttled", "by", "ip");
+    }
+
+    // Counts the attempt, or throws LoginThrottledException when either limit is used up
+    public void acquire(String username, String ip) {
+        if (ip != null && count(attemptsByIp, ip) > maxPerIp) {
+            throttledByIp.increment();
+            throw new LoginThrottledException("Too many login attempts, try again later", retryAfter(attemptsByIp, ip));
+        }
+        String key = username != null ? username.toLowerCase(Locale.ROOT) : "";
+        if (count(attemptsByUsername, key) > maxPerUsername) {
+            throttledByUsername.increment();
+            throw new LoginThrottledException("Too many login attempts, try again later", retryAfter(attemptsByUsername, key));
+        }
+    }
+
+    // A successful login clears the username's window, the address keeps counting
+    public void succeeded(String username) {
+        if (username != null) {
+            attemptsByUsername.invalidate(username.toLowerCase(Locale.ROOT));
+        }
+    }
+
+    private static int count(Cache<String, AtomicInteger> attempts, String key) {
+        return attempts.get(key, k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private long retryAfter(Cache<String, AtomicInteger> attempts, String key) {
+        Duration age = attempts.policy().expireAfterWrite()
+            .flatMap(expiry -> expiry.ageOf(key))
+            .orElse(Duration.ZERO);
+        return Math.max(1, window.minus(age).toSeconds());
+    }
+}
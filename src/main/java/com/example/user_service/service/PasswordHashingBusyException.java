@@ -0,0 +1,9 @@
+package com.example.user_service.service;
+
+// The password hashing pool and its queue are full, or the check took too long; the controller answers 429
+public class PasswordHashingBusyException extends RuntimeException {
+
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.ScheduleConflict;
+import com.example.user_service.dto.ScheduleDTO;
+import com.example.user_service.parser.TimeSlot;
+import com.example.user_service.parser.TimeSlotCodec;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+// Pairwise time-overlap check over the sections of one timetable.
+// Each section is reduced to (day, period mask, week mask) first, so a pair costs a
+// compare and two ANDs; a 10-section timetable is 45 pairs.
+@Component
+public class ScheduleConflictDetector {
+
+    public List<ScheduleConflict> detect(List<ScheduleDTO> sections) {
+        List<ScheduleConflict> conflicts = new ArrayList<>();
+        if (sections == null || sections.size() < 2) {
+            return conflicts;
+        }
+
+        int n = sections.size();
+        TimeSlot[] slots = new TimeSlot[n];
+        for (int i = 0; i < n; i++) {
+            ScheduleDTO s = sections.get(i);
+            slots[i] = TimeSlotCodec.toTimeSlot(s.getDayOfWeek(), s.getPeriods(), s.getWeeks());
+        }
+
+        for (int i = 0; i < n; i++) {
+            if (slots[i] == null) {
+                continue;
+            }
+            for (int j = i + 1; j < n; j++) {
+                if (slots[j] == null || !slots[i].overlaps(slots[j]) || sameSection(sections.get(i), sections.get(j))) {
+                    continue;
+                }
+                conflicts.add(conflict(sections, slots, i, j));
+            }
+        }
+        return conflicts;
+    }
+
+    // Rows of one class section (e.g. its theory and lab meetings) never conflict with each other
+    private boolean sameSection(ScheduleDTO a, ScheduleDTO b) {
+        return a.getClassNumber() != null
+            && Objects.equals(a.getCourseName(), b.getCourseName())
+            && Objects.equals(a.getClassNumber(), b.getClassNumber())
+            && Objects.equals(a.getSubtopic(), b.getSubtopic())
+            && Objects.equals(a.getClassGroup(), b.getClassGroup());
+    }
+
+    private ScheduleConflict conflict(List<ScheduleDTO> sections, TimeSlot[] slots, int i, int j) {
+        ScheduleDTO a = sections.get(i);
+        ScheduleDTO b = sections.get(j);
+        long weeks = slots[i].weekMask() == 0 ? slots[j].weekMask()
+            : slots[j].weekMask() == 0 ? slots[i].weekMask()
+            : slots[i].weekMask() & slots[j].weekMask();
+        return new ScheduleConflict(i, j,
+            a.getCourseName(), a.getClassNumber(),
+            b.getCourseName(), b.getClassNumber(),
+            a.getDayOfWeek(),
+            TimeSlotCodec.periods(slots[i].periodMask() & slots[j].periodMask()),
+            TimeSlotCodec.weeks(weeks));
+    }
+}
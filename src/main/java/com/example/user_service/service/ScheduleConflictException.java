@@ -0,0 +1,17 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.ScheduleConflict;
+import lombok.Getter;
+import java.util.List;
+
+// Raised by strict-mode saves; the controller turns it into 409 with the conflict list
+@Getter
+public class ScheduleConflictException extends RuntimeException {
+
+    private final List<ScheduleConflict> conflicts;
+
+    public ScheduleConflictException(List<ScheduleConflict> conflicts) {
+        super("Schedule has " + conflicts.size() + " time conflicts");
+        this.conflicts = conflicts;
+    }
+}
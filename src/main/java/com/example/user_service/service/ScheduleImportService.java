@@ -1,55 +1,204 @@
 package com.example.user_service.service;
 
+import com.example.user_service.dto.ImportJobStatus;
+import com.example.user_service.dto.ImportResult;
 import com.example.user_service.entity.Schedule;
-import com.example.user_service.entity.Semester;
+import com.example.user_service.parser.RowKeys;
+import com.example.user_service.parser.ScheduleSheetParser;
+import com.example.user_service.parser.TimeSlotCodec;
+import com.example.user_service.repository.ScheduleFingerprint;
 import com.example.user_service.repository.ScheduleRepository;
-import com.example.user_service.repository.SemesterRepository;
 import lombok.RequiredArgsConstructor;
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
 import org.apache.commons.csv.CSVRecord;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 @Service
 @RequiredArgsConstructor
 public class ScheduleImportService {
 
     private final PythonScriptService pythonScriptService;
+    private final ScheduleSheetParser scheduleSheetParser;
     private final ScheduleRepository scheduleRepository;
-    private final SemesterRepository semesterRepository;
-
-    @Transactional
-    public int importSchedule(MultipartFile file) throws Exception {
-        // Get original file extension
-        String originalFilename = file.getOriginalFilename();
-        String extension = originalFilename != null && originalFilename.contains(".") 
-            ? originalFilename.substring(originalFilename.lastIndexOf("."))
-            : ".xlsx";
-        
-        // Save uploaded file temporarily
-        Path tempInput = Files.createTempFile("schedule_input_", extension);
-        Files.copy(file.getInputStream(), tempInput, StandardCopyOption.REPLACE_EXISTING);
+    private final BulkLoader bulkLoader;
+    private final DatasetVersionService datasetVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final CatalogVersion catalogVersion;
+    private final ScheduleLookupIndex scheduleLookupIndex;
+    private final CourseSearchIndex courseSearchIndex;
+    private final StatisticsService statisticsService;
 
+    // "java" streams the sheet in-process, "python" runs process_classes.py
+    @Value("${import.parser:java}")
+    private String parserMode;
+
+    // "full" reloads everything into a new version, "incremental" patches the active one
+    @Value("${import.mode:full}")
+    private String defaultMode;
+
+    // file is a local copy of the upload; fileName is the original name and decides the format
+    public ImportResult importSchedule(Path file, String fileName, String mode, ImportProgress progress) {
+        long activeVersion = datasetVersionService.activeVersion(DatasetVersionService.SCHEDULES);
+        boolean incremental = "incremental".equalsIgnoreCase(mode != null ? mode : defaultMode);
+        if (incremental && activeVersion > 0) {
+            ImportResult result = transactionTemplate.execute(status -> applyDiff(file, fileName, activeVersion, progress));
+            // The active version was patched in place, cached responses are stale now
+            catalogVersion.bumpSchedules();
+            scheduleLookupIndex.rebuild();
+            courseSearchIndex.rebuild();
+            statisticsService.rebuild();
+            return result;
+        }
+        return importNewVersion(file, fileName, progress);
+    }
+
+    // Loads the file into a new dataset version, then switches readers over to it.
+    // The active version stays untouched (and readable) until the switch.
+    private ImportResult importNewVersion(Path file, String fileName, ImportProgress progress) {
+        long version = datasetVersionService.beginLoad(DatasetVersionService.SCHEDULES);
+
+        ImportResult result;
+        try {
+            result = transactionTemplate.execute(status -> loadVersion(file, fileName, version, progress));
+        } catch (RuntimeException e) {
+            datasetVersionService.markFailed(version);
+            datasetVersionService.collectGarbage(DatasetVersionService.SCHEDULES);
+            throw e;
+        }
+
+        progress.stage(ImportJobStatus.Stage.SWITCHING);
+        datasetVersionService.activate(DatasetVersionService.SCHEDULES, version, result.getRecordsImported());
+        scheduleLookupIndex.rebuild();
+        courseSearchIndex.rebuild();
+        statisticsService.rebuild();
+        datasetVersionService.collectGarbage(DatasetVersionService.SCHEDULES);
+        return result;
+    }
+
+    private ImportResult loadVersion(Path file, String fileName, long version, ImportProgress progress) {
+        BulkLoader.BatchWriter<Schedule> writer = bulkLoader.scheduleWriter();
+        Map<String, Integer> occurrences = new HashMap<>();
+        parse(file, fileName, progress, schedule -> {
+            fingerprint(schedule, occurrences);
+            schedule.setDatasetVersion(version);
+            writer.add(schedule);
+        });
+
+        ImportResult result = writer.finish();
+        result.setAdded(result.getRecordsImported());
+        return result;
+    }
+
+    // Applies only the inserts, updates and deletes needed to turn the active version into the file.
+    // The version is patched in place, so a rollback still returns to the previous full import.
+    private ImportResult applyDiff(Path file, String fileName, long version, ImportProgress progress) {
+        long startedAt = System.nanoTime();
+        Map<String, ScheduleFingerprint> stored = new HashMap<>();
+        List<Long> staleIds = new ArrayList<>();
+        for (ScheduleFingerprint row : scheduleRepository.findFingerprintsByDatasetVersion(version)) {
+            if (row.getRowKey() != null) {
+                stored.put(row.getRowKey(), row);
+            } else {
+                // Rows stored before fingerprinting can't be matched; replace them
+                staleIds.add(row.getId());
+            }
+        }
+
+        BulkLoader.BatchWriter<Schedule> inserts = bulkLoader.scheduleWriter();
+        BulkLoader.BatchWriter<Schedule> updates = bulkLoader.scheduleContentUpdater();
+        Map<String, Integer> occurrences = new HashMap<>();
+        int[] total = {0};
+
+        parse(file, fileName, progress, schedule -> {
+            fingerprint(schedule, occurrences);
+            schedule.setDatasetVersion(version);
+            total[0]++;
+
+            ScheduleFingerprint existing = stored.remove(schedule.getRowKey());
+            if (existing == null) {
+                inserts.add(schedule);
+            } else if (!existing.getContentHash().equals(schedule.getContentHash())) {
+                schedule.setId(existing.getId());
+                updates.add(schedule);
+            }
+        });
+
+        stored.values().forEach(row -> staleIds.add(row.getId()));
+        scheduleRepository.deleteAllByIdInBatch(staleIds);
+
+        ImportResult result = new ImportResult();
+        result.setRecordsImported(total[0]);
+        result.setAdded(inserts.finish().getRecordsImported());
+        result.setChanged(updates.finish().getRecordsImported());
+        result.setRemoved(staleIds.size());
+        long elapsedNanos = System.nanoTime() - startedAt;
+        result.setElapsedMillis(elapsedNanos / 1_000_000);
+        result.setRowsPerSecond(elapsedNanos > 0 ? total[0] * 1_000_000_000.0 / elapsedNanos : 0);
+        return result;
+    }
+
+    private void parse(Path file, String fileName, ImportProgress progress, Consumer<Schedule> sink) {
+        Consumer<Schedule> counted = schedule -> {
+            TimeSlotCodec.apply(schedule);
+            sink.accept(schedule);
+            progress.rowProcessed();
+        };
+        try {
+            if ("python".equalsIgnoreCase(parserMode)) {
+                importWithPython(file, progress, counted);
+            } else {
+                progress.stage(ImportJobStatus.Stage.LOADING);
+                try (InputStream in = Files.newInputStream(file)) {
+                    scheduleSheetParser.parse(in, fileName, counted);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private void fingerprint(Schedule schedule, Map<String, Integer> occurrences) {
+        String key = RowKeys.scheduleKey(schedule);
+        schedule.setRowKey(RowKeys.withOccurrence(key, occurrences.merge(key, 1, Integer::sum)));
+        schedule.setContentHash(RowKeys.scheduleContentHash(schedule));
+    }
+
+    // The uploaded copy already carries the original extension, so the script reads it directly
+    private int importWithPython(Path file, ImportProgress progress, Consumer<Schedule> sink) throws Exception {
         // Process with Python script
         Path tempOutput = Files.createTempFile("schedule_output_", ".csv");
-        pythonScriptService.executeScript("process_classes.py", 
-            tempInput.toString(), 
-            tempOutput.toString());
+        try {
+            progress.stage(ImportJobStatus.Stage.PARSING);
+            pythonScriptService.executeScript("process_classes.py", 
+                file.toString(), 
+                tempOutput.toString());
 
-        // Delete all old schedule data
-        scheduleRepository.deleteAll();
+            progress.stage(ImportJobStatus.Stage.LOADING);
+            return readProcessedCsv(tempOutput, sink);
+        } finally {
+            // Cleanup temp files
+            Files.deleteIfExists(tempOutput);
+        }
+    }
 
-        // Read processed CSV and save to database
+    private int readProcessedCsv(Path csv, Consumer<Schedule> sink) throws IOException {
         int count = 0;
         try (InputStreamReader reader = new InputStreamReader(
-                new FileInputStream(tempOutput.toFile()), StandardCharsets.UTF_8);
+                new FileInputStream(csv.toFile()), StandardCharsets.UTF_8);
              CSVParser csvParser = new CSVParser(reader, 
                 CSVFormat.DEFAULT
                     .withFirstRecordAsHeader()
@@ -72,15 +221,10 @@ public class ScheduleImportService {
                 schedule.setWeeks(getRecordValue(record, "Tuần học"));
                 schedule.setCapacity(parseInteger(getRecordValue(record, "Sỉ số")));
                 
-                scheduleRepository.save(schedule);
+                sink.accept(schedule);
                 count++;
             }
         }
-
-        // Cleanup temp files
-        Files.deleteIfExists(tempInput);
-        Files.deleteIfExists(tempOutput);
-
         return count;
     }
 
@@ -0,0 +1,88 @@
+package com.example.user_service.service;
+
+import com.example.user_service.entity.Schedule;
+import com.example.user_service.repository.ScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+// Read model for /schedules/by-course: the active dataset version grouped by
+// (courseName, subtopic-or-empty). Keys are trimmed and lower-cased the way MySQL's
+// default collation compares them, so lookups match what the JPQL queries returned.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ScheduleLookupIndex {
+
+    private final ScheduleRepository scheduleRepository;
+    private final DatasetVersionService datasetVersionService;
+    private final CatalogVersion catalogVersion;
+
+    // Any bump of the schedule version (switch-over, rollback, patch) invalidates the index
+    private final VersionedSnapshot<Map<String, List<Schedule>>> index =
+        new VersionedSnapshot<>(this::version, this::build);
+
+    // A blank subtopic (or "null" from the frontend) selects the sections without one
+    public List<Schedule> find(String courseName, String subtopic) {
+        return index.get().getOrDefault(key(courseName, subtopic), List.of());
+    }
+
+    // Every (courseName, subtopic) group of the active version
+    public Collection<List<Schedule>> sections() {
+        return index.get().values();
+    }
+
+    // Called by imports right after a switch-over so requests rarely pay for the build
+    public void rebuild() {
+        index.rebuild();
+    }
+
+    private long version() {
+        return catalogVersion.schedules();
+    }
+
+    private Map<String, List<Schedule>> build() {
+        long startedAt = System.nanoTime();
+        List<Schedule> schedules = scheduleRepository.findByDatasetVersion(
+            datasetVersionService.activeVersion(DatasetVersionService.SCHEDULES));
+        Map<String, List<Schedule>> sections = schedules.stream()
+            .collect(Collectors.groupingBy(
+                s -> key(s.getCourseName(), s.getSubtopic()),
+                Collectors.toUnmodifiableList()));
+        log.info("Schedule lookup index rebuilt: {} sections under {} keys in {} ms",
+            schedules.size(), sections.size(), (System.nanoTime() - startedAt) / 1_000_000);
+        return Map.copyOf(sections);
+    }
+
+    // Splits the rows of one course into class sections: rows sharing the class number and group
+    // (theory and lab meetings). Rows without a class number cannot be tied to others and stand alone.
+    static List<List<Schedule>> classSections(List<Schedule> rows) {
+        Map<String, List<Schedule>> sections = new LinkedHashMap<>();
+        for (int i = 0; i < rows.size(); i++) {
+            Schedule row = rows.get(i);
+            String key = row.getClassNumber() != null
+                ? row.getClassNumber() + "\u001F" + normalize(row.getClassGroup())
+                : "row\u001F" + i;
+            sections.computeIfAbsent(key, k -> new ArrayList<>()).add(row);
+        }
+        return new ArrayList<>(sections.values());
+    }
+
+    static String key(String courseName, String subtopic) {
+        String normalizedSubtopic = subtopic == null || subtopic.isBlank() || "null".equalsIgnoreCase(subtopic)
+            ? ""
+            : normalize(subtopic);
+        return normalize(courseName) + "\u001F" + normalizedSubtopic;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+}
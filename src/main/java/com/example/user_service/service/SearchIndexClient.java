@@ -0,0 +1,191 @@
+package com.example.user_service.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.RestTemplate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Pushes {courseName, subtopic} documents to the search service in bulk.
+// A session buffers and de-duplicates documents, ships a batch whenever it is full or
+// has waited long enough, and keeps at most max-in-flight batches on the wire.
+// flush-interval-ms is checked on add(), not on a timer: the session belongs to one import
+// thread that adds in a tight loop, so a partial batch waits at most until the next add or close().
+@Service
+@Slf4j
+public class SearchIndexClient {
+
+    public record Document(String courseName, String subtopic) {
+        public Document {
+            courseName = courseName != null ? courseName : "";
+            subtopic = subtopic != null ? subtopic : "";
+        }
+    }
+
+    private final RestTemplate restTemplate;
+    private final String searchServiceUrl;
+    private final String bulkPath;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final int maxInFlight;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    // Flipped off the first time the search service answers 404 on the bulk endpoint
+    private volatile boolean bulkSupported = true;
+
+    public SearchIndexClient(@Value("${search.service.url}") String searchServiceUrl,
+                             @Value("${search.bulk.path:/api/courses/bulk}") String bulkPath,
+                             @Value("${search.bulk.batch-size:500}") int batchSize,
+                             @Value("${search.bulk.flush-interval-ms:1000}") long flushIntervalMillis,
+                             @Value("${search.bulk.max-in-flight:4}") int maxInFlight,
+                             @Value("${search.timeout.connect-ms:2000}") int connectTimeoutMillis,
+                             @Value("${search.timeout.read-ms:10000}") int readTimeoutMillis) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeoutMillis);
+        requestFactory.setReadTimeout(readTimeoutMillis);
+        this.restTemplate = new RestTemplate(requestFactory);
+        this.searchServiceUrl = searchServiceUrl;
+        this.bulkPath = bulkPath;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.maxInFlight = maxInFlight;
+    }
+
+    public void clear() {
+        restTemplate.delete(searchServiceUrl + "/api/courses/clear");
+    }
+
+    public Session openSession() {
+        return new Session();
+    }
+
+    // Waits for batches already on the wire; a flush after shutdown is rejected
+    @PreDestroy
+    public void shutdown() {
+        senders.close();
+    }
+
+    // Sends one batch; returns the documents the search service did not accept
+    private List<Document> send(List<Document> batch) {
+        if (bulkSupported) {
+            try {
+                restTemplate.postForEntity(searchServiceUrl + bulkPath, batch, String.class);
+                return List.of();
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+                    throw e;
+                }
+                log.info("Search service has no {} endpoint, indexing documents one by one", bulkPath);
+                bulkSupported = false;
+            }
+        }
+
+        List<Document> failed = new ArrayList<>();
+        for (Document document : batch) {
+            try {
+                restTemplate.postForEntity(searchServiceUrl + "/api/courses/index", document, String.class);
+            } catch (Exception e) {
+                log.warn("Failed to index {}: {}", document.courseName(), e.getMessage());
+                failed.add(document);
+            }
+        }
+        return failed;
+    }
+
+    // Not shared between threads: the caller that opened it adds, then closes
+    public class Session implements AutoCloseable {
+        private final Set<Document> seen = new HashSet<>();
+        private final Semaphore inFlight = new Semaphore(maxInFlight);
+        private final Phaser pending = new Phaser(1);
+        private final AtomicLong indexed = new AtomicLong();
+        private final Set<Document> failed = ConcurrentHashMap.newKeySet();
+        private final AtomicInteger failedBatches = new AtomicInteger();
+        private final long startedAt = System.nanoTime();
+        private List<Document> buffer = new ArrayList<>();
+        private long bufferStartedAt;
+        private int batches;
+
+        public void add(Document document) {
+            if (!seen.add(document)) {
+                return;
+            }
+            if (buffer.isEmpty()) {
+                bufferStartedAt = System.nanoTime();
+            }
+            buffer.add(document);
+            if (buffer.size() >= batchSize
+                    || System.nanoTime() - bufferStartedAt >= flushIntervalMillis * 1_000_000) {
+                flush();
+            }
+        }
+
+        public void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            List<Document> batch = buffer;
+            buffer = new ArrayList<>(batchSize);
+            batches++;
+
+            // Blocks the caller only when max-in-flight batches are already being sent
+            inFlight.acquireUninterruptibly();
+            pending.register();
+            senders.execute(() -> {
+                try {
+                    List<Document> rejected = send(batch);
+                    failed.addAll(rejected);
+                    indexed.addAndGet(batch.size() - rejected.size());
+                } catch (Exception e) {
+                    failed.addAll(batch);
+                    failedBatches.incrementAndGet();
+                    log.warn("Failed to index a batch of {} documents: {}", batch.size(), e.getMessage());
+                } finally {
+                    inFlight.release();
+                    pending.arriveAndDeregister();
+                }
+            });
+        }
+
+        public long getIndexed() {
+            return indexed.get();
+        }
+
+        public int getBatches() {
+            return batches;
+        }
+
+        public int getFailedBatches() {
+            return failedBatches.get();
+        }
+
+        // Complete only after close()
+        public Set<Document> getFailed() {
+            return failed;
+        }
+
+        // Sends what is left and waits for every batch to be answered
+        @Override
+        public void close() {
+            flush();
+            pending.arriveAndAwaitAdvance();
+            long elapsedNanos = System.nanoTime() - startedAt;
+            log.info("Indexed {} of {} documents in {} batches ({} failed), {} docs/s",
+                indexed.get(), seen.size(), batches, failedBatches.get(),
+                String.format("%.0f", elapsedNanos > 0 ? indexed.get() * 1_000_000_000.0 / elapsedNanos : 0));
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.user_service.service;
+
+import com.example.user_service.entity.SearchOutboxEvent;
+import com.example.user_service.repository.SearchOutboxRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// Drains search_outbox into the search service in id order.
+// A CLEAR is never overtaken: the index events written before it are sent first and the
+// ones after it wait until it succeeded. A failed head event holds the queue back until
+// its backoff has passed, and the circuit breaker stops polling a search service that
+// keeps failing. Runs on a single scheduler thread of a single instance.
+@Service
+@Slf4j
+public class SearchOutboxDispatcher {
+
+    private final SearchOutboxRepository searchOutboxRepository;
+    private final SearchIndexClient searchIndexClient;
+    private final CircuitBreaker circuitBreaker;
+    private final int batchSize;
+    private final long backoffMillis;
+    private final long maxBackoffMillis;
+
+    public SearchOutboxDispatcher(SearchOutboxRepository searchOutboxRepository,
+                                  SearchIndexClient searchIndexClient,
+                                  @Value("${search.outbox.batch-size:2000}") int batchSize,
+                                  @Value("${search.outbox.backoff-ms:1000}") long backoffMillis,
+                                  @Value("${search.outbox.max-backoff-ms:300000}") long maxBackoffMillis,
+                                  @Value("${search.outbox.breaker.failure-threshold:5}") int failureThreshold,
+                                  @Value("${search.outbox.breaker.open-ms:30000}") long openMillis) {
+        this.searchOutboxRepository = searchOutboxRepository;
+        this.searchIndexClient = searchIndexClient;
+        this.circuitBreaker = new CircuitBreaker(failureThreshold, openMillis);
+        this.batchSize = batchSize;
+        this.backoffMillis = backoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${search.outbox.poll-interval-ms:1000}")
+    public void dispatch() {
+        while (circuitBreaker.allowRequest()) {
+            List<SearchOutboxEvent> head = searchOutboxRepository.findHead(PageRequest.of(0, batchSize));
+            if (head.isEmpty() || !isDue(head.get(0))) {
+                return;
+            }
+            boolean delivered = head.get(0).getType() == SearchOutboxEvent.Type.CLEAR
+                ? sendClear(head.get(0))
+                : sendIndexRun(head);
+            if (!delivered) {
+                return;
+            }
+        }
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private boolean sendClear(SearchOutboxEvent event) {
+        try {
+            searchIndexClient.clear();
+        } catch (Exception e) {
+            failed(List.of(event), e.getMessage());
+            return false;
+        }
+        searchOutboxRepository.delete(event);
+        circuitBreaker.recordSuccess();
+        return true;
+    }
+
+    // Sends the INDEX events in front of the next CLEAR as one bulk session
+    private boolean sendIndexRun(List<SearchOutboxEvent> head) {
+        List<SearchOutboxEvent> run = new ArrayList<>();
+        for (SearchOutboxEvent event : head) {
+            if (event.getType() != SearchOutboxEvent.Type.INDEX) {
+                break;
+            }
+            run.add(event);
+        }
+
+        SearchIndexClient.Session session = searchIndexClient.openSession();
+        try (session) {
+            run.forEach(event -> session.add(document(event)));
+        }
+
+        Set<SearchIndexClient.Document> rejected = session.getFailed();
+        List<Long> deliveredIds = new ArrayList<>();
+        List<SearchOutboxEvent> retry = new ArrayList<>();
+        for (SearchOutboxEvent event : run) {
+            if (rejected.contains(document(event))) {
+                retry.add(event);
+            } else {
+                deliveredIds.add(event.getId());
+            }
+        }
+        searchOutboxRepository.deleteAllByIdInBatch(deliveredIds);
+
+        if (!retry.isEmpty()) {
+            failed(retry, "Search service rejected " + retry.size() + " documents");
+            return false;
+        }
+        circuitBreaker.recordSuccess();
+        return true;
+    }
+
+    private void failed(List<SearchOutboxEvent> events, String error) {
+        circuitBreaker.recordFailure();
+        LocalDateTime now = LocalDateTime.now();
+        for (SearchOutboxEvent event : events) {
+            event.setAttempts(event.getAttempts() + 1);
+            // 1s, 2s, 4s, ... capped at max-backoff-ms
+            long delay = Math.min(maxBackoffMillis, backoffMillis << Math.min(event.getAttempts() - 1, 20));
+            event.setNextAttemptAt(now.plusNanos(delay * 1_000_000));
+            event.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+        }
+        searchOutboxRepository.saveAll(events);
+        log.warn("Search outbox delivery failed for {} events (attempt {}), circuit {}: {}",
+            events.size(), events.get(0).getAttempts(), circuitBreaker.getState(), error);
+    }
+
+    private boolean isDue(SearchOutboxEvent event) {
+        return event.getNextAttemptAt() == null || !event.getNextAttemptAt().isAfter(LocalDateTime.now());
+    }
+
+    private SearchIndexClient.Document document(SearchOutboxEvent event) {
+        return new SearchIndexClient.Document(event.getCourseName(), event.getSubtopic());
+    }
+}
@@ -0,0 +1,147 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.StatisticsDTO;
+import com.example.user_service.entity.Schedule;
+import com.example.user_service.repository.UserRepository;
+import com.example.user_service.repository.UserScheduleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Dashboard aggregates computed ahead of time, so reading them costs nothing.
+// Schedule aggregates are derived from the lookup index right after an import (and again
+// whenever the schedule version moves); user and timetable totals are counters seeded once at
+// startup and adjusted after each committed write.
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StatisticsService implements SmartInitializingSingleton {
+
+    private record ScheduleAggregates(long schedules, long courses, long sections, long seats,
+                                      Map<String, Integer> sectionsPerCourse, Map<String, Long> seatsPerCourse,
+                                      Map<String, Long> seatsPerMajor, Map<String, Long> seatsPerLocation,
+                                      Map<String, Integer> sectionsPerInstructor, LocalDateTime computedAt) {
+    }
+
+    private final ScheduleLookupIndex scheduleLookupIndex;
+    private final CatalogVersion catalogVersion;
+    private final UserRepository userRepository;
+    private final UserScheduleRepository userScheduleRepository;
+
+    private final VersionedSnapshot<ScheduleAggregates> aggregates =
+        new VersionedSnapshot<>(this::version, this::build);
+    private final LongAdder users = new LongAdder();
+    private final LongAdder savedTimetables = new LongAdder();
+
+    public StatisticsDTO getStatistics() {
+        ScheduleAggregates current = aggregates.get();
+        return new StatisticsDTO(current.schedules(), current.courses(), current.sections(), current.seats(),
+            current.sectionsPerInstructor().size(), users.sum(), savedTimetables.sum(),
+            current.sectionsPerCourse(), current.seatsPerCourse(), current.seatsPerMajor(),
+            current.seatsPerLocation(), current.sectionsPerInstructor(), current.computedAt());
+    }
+
+    // Runs once every singleton exists but before the web server starts, so no request can commit
+    // a write that is both counted here and incremented after commit
+    @Override
+    public void afterSingletonsInstantiated() {
+        users.add(userRepository.count());
+        savedTimetables.add(userScheduleRepository.count());
+        log.info("Statistics counters seeded: {} users, {} saved timetables", users.sum(), savedTimetables.sum());
+    }
+
+    public void userRegistered() {
+        afterCommit(users::increment);
+    }
+
+    public void timetableSaved() {
+        afterCommit(savedTimetables::increment);
+    }
+
+    public void timetableDeleted() {
+        afterCommit(savedTimetables::decrement);
+    }
+
+    public void rebuild() {
+        aggregates.rebuild();
+    }
+
+    private long version() {
+        return catalogVersion.schedules();
+    }
+
+    private ScheduleAggregates build() {
+        long startedAt = System.nanoTime();
+
+        long schedules = 0;
+        long sections = 0;
+        long seats = 0;
+        Set<String> courses = new HashSet<>();
+        Map<String, Integer> sectionsPerCourse = new TreeMap<>();
+        Map<String, Long> seatsPerCourse = new TreeMap<>();
+        Map<String, Long> seatsPerMajor = new TreeMap<>();
+        Map<String, Long> seatsPerLocation = new TreeMap<>();
+        Map<String, Integer> sectionsPerInstructor = new TreeMap<>();
+        for (List<Schedule> rows : scheduleLookupIndex.sections()) {
+            schedules += rows.size();
+            String course = rows.get(0).getCourseName();
+            courses.add(course);
+            for (List<Schedule> section : ScheduleLookupIndex.classSections(rows)) {
+                // Theory and lab rows of one section repeat its capacity; count it once
+                long capacity = section.stream()
+                    .mapToLong(row -> row.getCapacity() != null ? row.getCapacity() : 0)
+                    .max()
+                    .orElse(0);
+                Schedule first = section.get(0);
+                sections++;
+                seats += capacity;
+                sectionsPerCourse.merge(course, 1, Integer::sum);
+                seatsPerCourse.merge(course, capacity, Long::sum);
+                seatsPerMajor.merge(label(first.getMajor()), capacity, Long::sum);
+                seatsPerLocation.merge(label(first.getLocation()), capacity, Long::sum);
+                section.stream()
+                    .map(Schedule::getInstructor)
+                    .filter(instructor -> instructor != null && !instructor.isBlank())
+                    .map(String::strip)
+                    .distinct()
+                    .forEach(instructor -> sectionsPerInstructor.merge(instructor, 1, Integer::sum));
+            }
+        }
+
+        log.info("Schedule statistics computed over {} rows in {} ms",
+            schedules, (System.nanoTime() - startedAt) / 1_000_000);
+        return new ScheduleAggregates(schedules, courses.size(), sections, seats,
+            Collections.unmodifiableMap(sectionsPerCourse), Collections.unmodifiableMap(seatsPerCourse),
+            Collections.unmodifiableMap(seatsPerMajor), Collections.unmodifiableMap(seatsPerLocation),
+            Collections.unmodifiableMap(sectionsPerInstructor), LocalDateTime.now());
+    }
+
+    // Counters only move once the write is durable; outside a transaction, right away
+    private static void afterCommit(Runnable update) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            update.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                update.run();
+            }
+        });
+    }
+
+    private static String label(String value) {
+        return value == null || value.isBlank() ? "(none)" : value.strip();
+    }
+}
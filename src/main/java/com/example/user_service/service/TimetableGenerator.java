@@ -0,0 +1,490 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.GenerateScheduleRequest;
+import com.example.user_service.dto.GenerateScheduleResponse;
+import com.example.user_service.dto.GeneratedTimetable;
+import com.example.user_service.dto.ScheduleDTO;
+import com.example.user_service.entity.Schedule;
+import com.example.user_service.parser.TimeSlot;
+import com.example.user_service.parser.TimeSlotCodec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BooleanSupplier;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+// Builds conflict-free timetables for a set of (courseName, subtopic) pairs from the active
+// schedule dataset. Each course contributes one section; a section is every row sharing the
+// class number and group, so theory and lab meetings are placed together.
+// Sections breaking a hard constraint are dropped up front. The rest are searched by
+// backtracking over a (day, period) -> taken-weeks grid, so testing or placing a section is a
+// handful of ANDs. The first branching levels are forked onto the solver pool; every branch
+// keeps its own top-K and they are merged on the way back up.
+@Service
+@Slf4j
+public class TimetableGenerator {
+
+    // Grid cell = day * CELLS_PER_DAY + period
+    private static final int CELLS_PER_DAY = TimeSlotCodec.MAX_PERIOD + 1;
+    private static final int GRID_SIZE = 7 * CELLS_PER_DAY;
+    private static final long ALL_WEEKS = -1L;
+
+    // score = 10 per section taught by a preferred instructor
+    //       - 4 per day with classes - 1 per idle period between two classes of a day
+    static final int PREFERRED_INSTRUCTOR_POINTS = 10;
+    static final int DAY_PENALTY = 4;
+    static final int GAP_PENALTY = 1;
+
+    private static final int DEADLINE_CHECK_INTERVAL = 1024;
+
+    // One candidate section of one course, reduced to the grid cells it takes
+    private record Option(List<Schedule> rows, int[] cells, long[] weeks, int dayBits, boolean preferred) {
+    }
+
+    // courses[i] is searched at depth i with options[i]; preferredAhead[i] counts the courses
+    // from depth i on that have a section with a preferred instructor
+    private record Problem(Option[][] options, int[] preferredAhead, List<String> unavailable) {
+    }
+
+    private record Constraints(int daysOff, int excludedPeriods, String language, String location,
+                               Set<String> preferredInstructors) {
+
+        boolean accepts(Schedule row) {
+            return matches(language, row.getLanguage()) && matches(location, row.getLocation());
+        }
+
+        boolean prefers(Schedule row) {
+            return row.getInstructor() != null && preferredInstructors.contains(normalize(row.getInstructor()));
+        }
+
+        private static boolean matches(String wanted, String actual) {
+            return wanted == null || wanted.equals(normalize(actual));
+        }
+    }
+
+    private record Candidate(Option[] chosen, int score, int daysUsed, int gapPeriods, int preferred) {
+    }
+
+    private final ScheduleLookupIndex scheduleLookupIndex;
+    private final ForkJoinPool solverPool;
+    private final int morningMask;
+    private final int maxCourses;
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final long defaultTimeBudgetMillis;
+    private final long maxTimeBudgetMillis;
+
+    public TimetableGenerator(ScheduleLookupIndex scheduleLookupIndex,
+                              @Qualifier("timetableSolverPool") ForkJoinPool solverPool,
+                              @Value("${schedule.generator.morning-last-period:5}") int morningLastPeriod,
+                              @Value("${schedule.generator.max-courses:12}") int maxCourses,
+                              @Value("${schedule.generator.default-limit:10}") int defaultLimit,
+                              @Value("${schedule.generator.max-limit:50}") int maxLimit,
+                              @Value("${schedule.generator.time-budget-ms:2000}") long defaultTimeBudgetMillis,
+                              @Value("${schedule.generator.max-time-budget-ms:5000}") long maxTimeBudgetMillis) {
+        this.scheduleLookupIndex = scheduleLookupIndex;
+        this.solverPool = solverPool;
+        this.morningMask = ((1 << (morningLastPeriod + 1)) - 1) & ~1;
+        this.maxCourses = maxCourses;
+        this.defaultLimit = defaultLimit;
+        this.maxLimit = maxLimit;
+        this.defaultTimeBudgetMillis = defaultTimeBudgetMillis;
+        this.maxTimeBudgetMillis = maxTimeBudgetMillis;
+    }
+
+    public GenerateScheduleResponse generate(GenerateScheduleRequest request) {
+        long startedAt = System.nanoTime();
+        Problem problem = prepare(request);
+        if (!problem.unavailable().isEmpty()) {
+            return new GenerateScheduleResponse(List.of(), problem.unavailable(), 0, true, 0);
+        }
+
+        long budgetMillis = clamp(request.getTimeBudgetMs(), defaultTimeBudgetMillis, maxTimeBudgetMillis);
+        Run run = new Run(problem, (int) clamp(request.getLimit() == null ? null : request.getLimit().longValue(),
+            defaultLimit, maxLimit), startedAt + budgetMillis * 1_000_000, () -> false);
+        TopK top = solverPool.invoke(new Branch(run, 0, new long[GRID_SIZE],
+            new Option[problem.options().length], 0, 0, 1));
+
+        List<GeneratedTimetable> timetables = top.best().stream().map(this::toTimetable).toList();
+        long elapsedMillis = (System.nanoTime() - startedAt) / 1_000_000;
+        log.debug("Generated {} timetables for {} courses: {} nodes in {} ms{}", timetables.size(),
+            problem.options().length, run.explored.sum(), elapsedMillis, run.timedOut ? " (time budget hit)" : "");
+        return new GenerateScheduleResponse(timetables, List.of(), run.explored.sum(), !run.timedOut, elapsedMillis);
+    }
+
+    // Walks the search space on the calling thread and hands over every conflict-free timetable
+    // as soon as it is found, in discovery order rather than by score. The sink returns false to
+    // stop early (enough results); cancelled is polled with the deadline, so a client that is gone
+    // stops the walk even between timetables. The returned summary has no timetables.
+    public GenerateScheduleResponse stream(GenerateScheduleRequest request, long timeBudgetMillis,
+                                           BooleanSupplier cancelled, Predicate<GeneratedTimetable> sink) {
+        long startedAt = System.nanoTime();
+        Problem problem = prepare(request);
+        if (!problem.unavailable().isEmpty()) {
+            return new GenerateScheduleResponse(List.of(), problem.unavailable(), 0, true, 0);
+        }
+
+        Run run = new Run(problem, 0, startedAt + timeBudgetMillis * 1_000_000, cancelled);
+        new Walker(run, new long[GRID_SIZE], new Option[problem.options().length],
+            candidate -> sink.test(toTimetable(candidate)))
+            .descend(0, 0, 0);
+        return new GenerateScheduleResponse(List.of(), List.of(), run.explored.sum(), !run.stopped,
+            (System.nanoTime() - startedAt) / 1_000_000);
+    }
+
+    private Problem prepare(GenerateScheduleRequest request) {
+        List<GenerateScheduleRequest.CourseSelection> courses = request.getCourses() != null ? request.getCourses() : List.of();
+        if (courses.isEmpty()) {
+            throw new RuntimeException("No courses selected");
+        }
+        if (courses.size() > maxCourses) {
+            throw new RuntimeException("At most " + maxCourses + " courses can be generated at once");
+        }
+
+        Constraints constraints = constraints(request);
+        Map<String, GenerateScheduleRequest.CourseSelection> unique = new LinkedHashMap<>();
+        for (GenerateScheduleRequest.CourseSelection course : courses) {
+            unique.putIfAbsent(ScheduleLookupIndex.key(course.getCourseName(), course.getSubtopic()), course);
+        }
+
+        List<Option[]> levels = new ArrayList<>();
+        List<String> unavailable = new ArrayList<>();
+        for (GenerateScheduleRequest.CourseSelection course : unique.values()) {
+            Option[] options = ScheduleLookupIndex.classSections(scheduleLookupIndex.find(course.getCourseName(), course.getSubtopic()))
+                .stream()
+                .map(rows -> toOption(rows, constraints))
+                .filter(option -> option != null)
+                // Sections with a preferred instructor first, so good timetables are found early
+                .sorted(Comparator.comparing(option -> !option.preferred()))
+                .toArray(Option[]::new);
+            if (options.length == 0) {
+                unavailable.add(course.getSubtopic() == null || course.getSubtopic().isBlank()
+                    ? course.getCourseName()
+                    : course.getCourseName() + " - " + course.getSubtopic());
+            }
+            levels.add(options);
+        }
+
+        // Fewest sections first: conflicts show up near the root, where pruning saves the most
+        levels.sort(Comparator.comparingInt(options -> options.length));
+        Option[][] options = levels.toArray(Option[][]::new);
+        int[] preferredAhead = new int[options.length + 1];
+        for (int i = options.length - 1; i >= 0; i--) {
+            boolean anyPreferred = Arrays.stream(options[i]).anyMatch(Option::preferred);
+            preferredAhead[i] = preferredAhead[i + 1] + (anyPreferred ? 1 : 0);
+        }
+        return new Problem(options, preferredAhead, unavailable);
+    }
+
+    private Constraints constraints(GenerateScheduleRequest request) {
+        int daysOff = 0;
+        if (request.getDaysOff() != null) {
+            for (String day : request.getDaysOff()) {
+                Integer index = TimeSlotCodec.dayIndex(day);
+                if (index == null) {
+                    throw new RuntimeException("Unknown day: " + day);
+                }
+                daysOff |= 1 << index;
+            }
+        }
+        Set<String> preferred = request.getPreferredInstructors() == null
+            ? Set.of()
+            : request.getPreferredInstructors().stream()
+                .filter(name -> name != null && !name.isBlank())
+                .map(TimetableGenerator::normalize)
+                .collect(Collectors.toUnmodifiableSet());
+        return new Constraints(daysOff, request.isNoMorning() ? morningMask : 0,
+            blankToNull(request.getLanguage()), blankToNull(request.getLocation()), preferred);
+    }
+
+    private static Option toOption(List<Schedule> rows, Constraints constraints) {
+        long[] occupied = new long[GRID_SIZE];
+        int dayBits = 0;
+        boolean preferred = false;
+        for (Schedule row : rows) {
+            if (!constraints.accepts(row)) {
+                return null;
+            }
+            preferred |= constraints.prefers(row);
+            TimeSlot slot = TimeSlotCodec.toTimeSlot(row);
+            if (slot == null) {
+                // Online or unscheduled meetings take no time on the grid
+                continue;
+            }
+            if ((constraints.daysOff() & (1 << slot.dayIndex())) != 0
+                    || (constraints.excludedPeriods() & slot.periodMask()) != 0) {
+                return null;
+            }
+            long weeks = slot.weekMask() == 0 ? ALL_WEEKS : slot.weekMask();
+            for (int p = 1; p <= TimeSlotCodec.MAX_PERIOD; p++) {
+                if ((slot.periodMask() & (1 << p)) != 0) {
+                    occupied[slot.dayIndex() * CELLS_PER_DAY + p] |= weeks;
+                }
+            }
+            dayBits |= 1 << slot.dayIndex();
+        }
+
+        int count = 0;
+        for (long weeks : occupied) {
+            count += weeks != 0 ? 1 : 0;
+        }
+        int[] cells = new int[count];
+        long[] weeks = new long[count];
+        for (int cell = 0, i = 0; cell < GRID_SIZE; cell++) {
+            if (occupied[cell] != 0) {
+                cells[i] = cell;
+                weeks[i++] = occupied[cell];
+            }
+        }
+        return new Option(List.copyOf(rows), cells, weeks, dayBits, preferred);
+    }
+
+    private static boolean fits(long[] grid, Option option) {
+        for (int i = 0; i < option.cells().length; i++) {
+            if ((grid[option.cells()[i]] & option.weeks()[i]) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void place(long[] grid, Option option) {
+        for (int i = 0; i < option.cells().length; i++) {
+            grid[option.cells()[i]] |= option.weeks()[i];
+        }
+    }
+
+    // Exact because a placed option never overlaps what was already on the grid
+    private static void remove(long[] grid, Option option) {
+        for (int i = 0; i < option.cells().length; i++) {
+            grid[option.cells()[i]] &= ~option.weeks()[i];
+        }
+    }
+
+    private static Candidate score(long[] grid, Option[] chosen, int dayBits, int preferred) {
+        int gaps = 0;
+        for (int day = 0; day < 7; day++) {
+            if ((dayBits & (1 << day)) == 0) {
+                continue;
+            }
+            int periods = 0;
+            for (int p = 1; p <= TimeSlotCodec.MAX_PERIOD; p++) {
+                if (grid[day * CELLS_PER_DAY + p] != 0) {
+                    periods |= 1 << p;
+                }
+            }
+            if (periods != 0) {
+                int span = (31 - Integer.numberOfLeadingZeros(periods)) - Integer.numberOfTrailingZeros(periods) + 1;
+                gaps += span - Integer.bitCount(periods);
+            }
+        }
+        int days = Integer.bitCount(dayBits);
+        int score = PREFERRED_INSTRUCTOR_POINTS * preferred - DAY_PENALTY * days - GAP_PENALTY * gaps;
+        return new Candidate(chosen.clone(), score, days, gaps, preferred);
+    }
+
+    private GeneratedTimetable toTimetable(Candidate candidate) {
+        List<ScheduleDTO> schedules = new ArrayList<>();
+        for (Option option : candidate.chosen()) {
+            option.rows().forEach(row -> schedules.add(toDto(row)));
+        }
+        return new GeneratedTimetable(candidate.score(), candidate.daysUsed(), candidate.gapPeriods(),
+            candidate.preferred(), schedules);
+    }
+
+    private static ScheduleDTO toDto(Schedule row) {
+        return new ScheduleDTO(row.getCourseName(), row.getClassNumber(), row.getLanguage(), row.getMajor(),
+            row.getClassGroup(), row.getSubtopic(), row.getInstructor(), row.getDayOfWeek(), row.getPeriods(),
+            row.getLocation(), row.getRoomNumber(), row.getWeeks(), row.getCapacity(), row.getRowKey());
+    }
+
+    private static long clamp(Long requested, long defaultValue, long max) {
+        return requested == null || requested <= 0 ? defaultValue : Math.min(requested, max);
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : normalize(value);
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // State shared by every branch of one request
+    private static final class Run {
+        private final Problem problem;
+        private final int limit;
+        private final long deadline;
+        private final BooleanSupplier cancelled;
+        private final LongAdder explored = new LongAdder();
+        // Lowest score still able to enter the overall top-K: any branch's K-th best
+        private final AtomicInteger floor = new AtomicInteger(Integer.MIN_VALUE);
+        private volatile boolean stopped;
+        private volatile boolean timedOut;
+
+        private Run(Problem problem, int limit, long deadline, BooleanSupplier cancelled) {
+            this.problem = problem;
+            this.limit = limit;
+            this.deadline = deadline;
+            this.cancelled = cancelled;
+        }
+    }
+
+    private static final class TopK {
+        private final int limit;
+        private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingInt(Candidate::score));
+
+        private TopK(int limit) {
+            this.limit = limit;
+        }
+
+        // Returns the K-th best score once full, otherwise Integer.MIN_VALUE
+        private int offer(Candidate candidate) {
+            if (heap.size() < limit) {
+                heap.add(candidate);
+            } else if (candidate.score() > heap.peek().score()) {
+                heap.poll();
+                heap.add(candidate);
+            }
+            return heap.size() < limit ? Integer.MIN_VALUE : heap.peek().score();
+        }
+
+        private void addAll(TopK other) {
+            other.heap.forEach(this::offer);
+        }
+
+        private List<Candidate> best() {
+            return heap.stream().sorted(Comparator.comparingInt(Candidate::score).reversed()).toList();
+        }
+    }
+
+    // Forks one child per fitting option until there are about as many branches as workers,
+    // then walks its subtree sequentially on the grid it was handed
+    private final class Branch extends RecursiveTask<TopK> {
+        private final Run run;
+        private final int depth;
+        private final long[] grid;
+        private final Option[] chosen;
+        private final int dayBits;
+        private final int preferred;
+        private final int width;
+
+        private Branch(Run run, int depth, long[] grid, Option[] chosen, int dayBits, int preferred, int width) {
+            this.run = run;
+            this.depth = depth;
+            this.grid = grid;
+            this.chosen = chosen;
+            this.dayBits = dayBits;
+            this.preferred = preferred;
+            this.width = width;
+        }
+
+        @Override
+        protected TopK compute() {
+            TopK top = new TopK(run.limit);
+            Option[][] options = run.problem.options();
+            if (depth < options.length && options[depth].length > 1 && width < solverPool.getParallelism()) {
+                List<Branch> forks = new ArrayList<>();
+                for (Option option : options[depth]) {
+                    if (!fits(grid, option)) {
+                        continue;
+                    }
+                    long[] childGrid = grid.clone();
+                    place(childGrid, option);
+                    Option[] childChosen = chosen.clone();
+                    childChosen[depth] = option;
+                    forks.add(new Branch(run, depth + 1, childGrid, childChosen, dayBits | option.dayBits(),
+                        preferred + (option.preferred() ? 1 : 0), width * options[depth].length));
+                }
+                for (Branch fork : invokeAll(forks)) {
+                    top.addAll(fork.join());
+                }
+            } else {
+                new Walker(run, grid, chosen, candidate -> {
+                    int floor = top.offer(candidate);
+                    if (floor != Integer.MIN_VALUE) {
+                        run.floor.accumulateAndGet(floor, Math::max);
+                    }
+                    return true;
+                }).descend(depth, dayBits, preferred);
+            }
+            return top;
+        }
+    }
+
+    // Sequential backtracking over one grid; every complete timetable goes to leaves,
+    // which returns false to stop the whole run
+    private static final class Walker {
+        private final Run run;
+        private final long[] grid;
+        private final Option[] chosen;
+        private final Predicate<Candidate> leaves;
+        private long nodes;
+
+        private Walker(Run run, long[] grid, Option[] chosen, Predicate<Candidate> leaves) {
+            this.run = run;
+            this.grid = grid;
+            this.chosen = chosen;
+            this.leaves = leaves;
+        }
+
+        private void descend(int level, int days, int preferred) {
+            if (run.stopped) {
+                return;
+            }
+            run.explored.increment();
+            if (++nodes % DEADLINE_CHECK_INTERVAL == 0) {
+                if (System.nanoTime() > run.deadline) {
+                    run.timedOut = true;
+                    run.stopped = true;
+                    return;
+                }
+                if (run.cancelled.getAsBoolean()) {
+                    run.stopped = true;
+                    return;
+                }
+            }
+
+            Option[][] options = run.problem.options();
+            if (level == options.length) {
+                if (!leaves.test(score(grid, chosen, days, preferred))) {
+                    run.stopped = true;
+                }
+                return;
+            }
+
+            // Days and preferred sections only add up, gaps can still close: an upper bound
+            int bound = PREFERRED_INSTRUCTOR_POINTS * (preferred + run.problem.preferredAhead()[level])
+                - DAY_PENALTY * Integer.bitCount(days);
+            if (bound <= run.floor.get()) {
+                return;
+            }
+
+            for (Option option : options[level]) {
+                if (!fits(grid, option)) {
+                    continue;
+                }
+                place(grid, option);
+                chosen[level] = option;
+                descend(level + 1, days | option.dayBits(), preferred + (option.preferred() ? 1 : 0));
+                remove(grid, option);
+                chosen[level] = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.GenerateScheduleRequest;
+import com.example.user_service.dto.GenerateScheduleResponse;
+import com.example.user_service.dto.GeneratedTimetable;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Streams generated timetables over SSE while the search is still running.
+// The solver runs on the bounded timetableStreamExecutor (CPU-bound, so a platform thread) and
+// the sender on a virtual thread, joined by a small bounded queue: a slow client blocks the
+// sender on the socket, the queue fills up and the solver waits, so at most buffer-size
+// timetables are ever held per stream. A disconnect, the result cap or the time budget stops
+// the solver, and the stream's slot is only given back once both of them have finished.
+@Service
+@Slf4j
+public class TimetableStreamService {
+
+    // Marks the end of the queue; the summary is read after it is taken
+    private static final GeneratedTimetable END = new GeneratedTimetable();
+
+    private final TimetableGenerator timetableGenerator;
+    private final ExecutorService solvers;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore slots;
+    private final int defaultMaxResults;
+    private final int maxResultsCap;
+    private final int bufferSize;
+    private final long timeBudgetMillis;
+
+    public TimetableStreamService(TimetableGenerator timetableGenerator,
+                                  @Qualifier("timetableStreamExecutor") ExecutorService solvers,
+                                  @Value("${schedule.generator.stream.max-concurrent:8}") int maxConcurrent,
+                                  @Value("${schedule.generator.stream.default-max-results:100}") int defaultMaxResults,
+                                  @Value("${schedule.generator.stream.max-results:1000}") int maxResultsCap,
+                                  @Value("${schedule.generator.stream.buffer-size:16}") int bufferSize,
+                                  @Value("${schedule.generator.stream.time-budget-ms:30000}") long timeBudgetMillis) {
+        this.timetableGenerator = timetableGenerator;
+        this.solvers = solvers;
+        this.slots = new Semaphore(maxConcurrent);
+        this.defaultMaxResults = defaultMaxResults;
+        this.maxResultsCap = maxResultsCap;
+        this.bufferSize = bufferSize;
+        this.timeBudgetMillis = timeBudgetMillis;
+    }
+
+    // Events: "timetable" per result, then one "done" with the summary (or "error")
+    public SseEmitter open(GenerateScheduleRequest request, Integer maxResults) {
+        if (!slots.tryAcquire()) {
+            throw new TooManyStreamsException("Too many timetable streams in progress, try again later");
+        }
+        int cap = maxResults == null || maxResults <= 0 ? defaultMaxResults : Math.min(maxResults, maxResultsCap);
+
+        // A little longer than the search may run, so the emitter never times out mid-send
+        SseEmitter emitter = new SseEmitter(timeBudgetMillis + 10_000);
+        AtomicBoolean cancelled = new AtomicBoolean();
+        emitter.onCompletion(() -> cancelled.set(true));
+        emitter.onTimeout(() -> cancelled.set(true));
+        emitter.onError(e -> cancelled.set(true));
+
+        BlockingQueue<GeneratedTimetable> queue = new ArrayBlockingQueue<>(bufferSize);
+        Summary summary = new Summary();
+        AtomicInteger running = new AtomicInteger(2);
+        Runnable finished = () -> {
+            if (running.decrementAndGet() == 0) {
+                slots.release();
+            }
+        };
+        solvers.execute(() -> {
+            try {
+                solve(request, cap, queue, cancelled, summary);
+            } finally {
+                finished.run();
+            }
+        });
+        senders.execute(() -> {
+            try {
+                send(emitter, queue, cancelled, summary);
+            } finally {
+                finished.run();
+            }
+        });
+        return emitter;
+    }
+
+    private void solve(GenerateScheduleRequest request, int cap, BlockingQueue<GeneratedTimetable> queue,
+                       AtomicBoolean cancelled, Summary summary) {
+        AtomicInteger produced = new AtomicInteger();
+        try {
+            summary.response = timetableGenerator.stream(request, timeBudgetMillis, cancelled::get,
+                timetable -> offer(queue, timetable, cancelled) && produced.incrementAndGet() < cap);
+        } catch (Exception e) {
+            summary.error = e.getMessage();
+        } finally {
+            // Unconditional put would block forever once the sender has gone
+            offer(queue, END, cancelled);
+        }
+    }
+
+    // Waits for room in the queue, giving up as soon as the client is gone
+    private static boolean offer(BlockingQueue<GeneratedTimetable> queue, GeneratedTimetable timetable,
+                                 AtomicBoolean cancelled) {
+        try {
+            while (!cancelled.get()) {
+                if (queue.offer(timetable, 200, TimeUnit.MILLISECONDS)) {
+                    return true;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return false;
+    }
+
+    private static void send(SseEmitter emitter, BlockingQueue<GeneratedTimetable> queue,
+                             AtomicBoolean cancelled, Summary summary) {
+        int sent = 0;
+        try {
+            while (!cancelled.get()) {
+                GeneratedTimetable timetable = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (timetable == END) {
+                    if (summary.error != null) {
+                        emitter.send(SseEmitter.event().name("error").data(summary.error));
+                    } else {
+                        emitter.send(SseEmitter.event().name("done").data(summary.response));
+                    }
+                    emitter.complete();
+                    return;
+                }
+                if (timetable != null) {
+                    emitter.send(SseEmitter.event().name("timetable").id(Integer.toString(sent++)).data(timetable));
+                }
+            }
+        } catch (IOException | IllegalStateException e) {
+            // The client went away; the solver notices through cancelled
+            log.debug("Timetable stream closed by client after {} results: {}", sent, e.getMessage());
+            cancelled.set(true);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled.set(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.close();
+    }
+
+    // Written by the solver before it enqueues END, read by the sender after taking it
+    private static final class Summary {
+        private volatile GenerateScheduleResponse response;
+        private volatile String error;
+    }
+}
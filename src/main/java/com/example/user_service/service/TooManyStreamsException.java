@@ -0,0 +1,9 @@
+package com.example.user_service.service;
+
+// Every timetable stream slot is taken; the controller answers 429
+public class TooManyStreamsException extends RuntimeException {
+
+    public TooManyStreamsException(String message) {
+        super(message);
+    }
+}
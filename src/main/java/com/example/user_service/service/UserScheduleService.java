@@ -1,31 +1,72 @@
 package com.example.user_service.service;
 
 import com.example.user_service.dto.SaveScheduleRequest;
+import com.example.user_service.dto.ScheduleConflict;
 import com.example.user_service.dto.ScheduleDTO;
 import com.example.user_service.entity.Semester;
 import com.example.user_service.entity.User;
 import com.example.user_service.entity.UserSchedule;
+import com.example.user_service.entity.UserScheduleSection;
+import com.example.user_service.parser.RowKeys;
+import com.example.user_service.parser.ScheduleSnapshotCodec;
+import com.example.user_service.repository.ScheduleFingerprint;
+import com.example.user_service.repository.ScheduleRepository;
 import com.example.user_service.repository.SemesterRepository;
 import com.example.user_service.repository.UserRepository;
 import com.example.user_service.repository.UserScheduleRepository;
+import com.example.user_service.repository.UserScheduleSectionRepository;
+import com.example.user_service.repository.UserScheduleSummary;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class UserScheduleService {
 
+    private static final int MIGRATION_BATCH_SIZE = 500;
+
     private final UserScheduleRepository userScheduleRepository;
     private final UserRepository userRepository;
     private final SemesterRepository semesterRepository;
+    private final ScheduleConflictDetector scheduleConflictDetector;
+    private final StatisticsService statisticsService;
+    private final UserScheduleSectionRepository userScheduleSectionRepository;
+    private final ScheduleRepository scheduleRepository;
+    private final DatasetVersionService datasetVersionService;
+    private final TransactionTemplate transactionTemplate;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // normalized: section references in user_schedule_sections plus a compact snapshot;
+    // json: the full ScheduleDTO list in user_schedules.schedule, as before
+    @Value("${user-schedule.storage:normalized}")
+    private String storage;
+
+    // Conflicts are always detected and returned with the saved timetable; strict mode rejects
+    // timetables that have any instead, and a request can also ask for it
+    @Value("${schedule.conflicts.strict:false}")
+    private boolean strictByDefault;
+
+    public List<ScheduleConflict> findConflicts(List<ScheduleDTO> schedules) {
+        return scheduleConflictDetector.detect(schedules);
+    }
+
     @Transactional
-    public UserSchedule saveSchedule(SaveScheduleRequest request) throws JsonProcessingException {
+    public UserSchedule saveSchedule(SaveScheduleRequest request, Boolean strict) throws JsonProcessingException {
+        List<ScheduleConflict> conflicts = detectConflicts(request, strict);
+
         User user = userRepository.findById(request.getUserId())
             .orElseThrow(() -> new RuntimeException("User not found"));
         
@@ -33,9 +74,6 @@ public class UserScheduleService {
         Semester semester = semesterRepository.findById(request.getSemesterId())
             .orElseThrow(() -> new RuntimeException("Semester not found"));
 
-        // Convert schedules list to JSON string
-        String scheduleJson = objectMapper.writeValueAsString(request.getSchedules());
-        
         // Convert parsedPrompt Map to JSON string
         String parsedPromptJson = request.getParsedPrompt() != null 
             ? objectMapper.writeValueAsString(request.getParsedPrompt())
@@ -45,14 +83,21 @@ public class UserScheduleService {
         userSchedule.setUser(user);
         userSchedule.setSemesterName(semester.getSemesterName());
         userSchedule.setAcademicYear(semester.getAcademicYear().getYearName());
-        userSchedule.setSchedule(scheduleJson);
+        setSchedules(userSchedule, request.getSchedules());
         userSchedule.setPrompt(request.getPrompt());
         userSchedule.setParsedPrompt(parsedPromptJson);
 
-        return userScheduleRepository.save(userSchedule);
+        UserSchedule saved = userScheduleRepository.save(userSchedule);
+        saveSections(saved, request.getSchedules());
+        statisticsService.timetableSaved();
+        saved.setConflicts(conflicts);
+        return saved;
     }
 
     public List<ScheduleDTO> getScheduleAsDTO(UserSchedule userSchedule) throws JsonProcessingException {
+        if (userSchedule.getStorageFormat() == UserSchedule.Format.COMPACT) {
+            return ScheduleSnapshotCodec.decode(userSchedule.getSchedule());
+        }
         return objectMapper.readValue(
             userSchedule.getSchedule(), 
             objectMapper.getTypeFactory().constructCollectionType(List.class, ScheduleDTO.class)
@@ -73,30 +118,147 @@ public class UserScheduleService {
         return userScheduleRepository.findByUser(user);
     }
 
+    // One page of the list view. before is the (createdAt, id) of the last summary already shown,
+    // or null for the first page.
+    public List<UserScheduleSummary> getUserScheduleSummaries(Long userId, Long semesterId,
+                                                              LocalDateTime beforeCreatedAt, Long beforeId, int limit) {
+        String semesterName = null;
+        if (semesterId != null) {
+            semesterName = semesterRepository.findById(semesterId)
+                .orElseThrow(() -> new RuntimeException("Semester not found"))
+                .getSemesterName();
+        }
+        PageRequest page = PageRequest.of(0, limit);
+        if (beforeCreatedAt == null || beforeId == null) {
+            return userScheduleRepository.findSummaries(userId, semesterName, page);
+        }
+        return userScheduleRepository.findSummariesBefore(userId, semesterName, beforeCreatedAt, beforeId, page);
+    }
+
+    public UserSchedule getSchedule(Long scheduleId) {
+        return userScheduleRepository.findById(scheduleId)
+            .orElseThrow(() -> new RuntimeException("Schedule not found"));
+    }
+
     @Transactional
     public void deleteSchedule(Long scheduleId) {
-        userScheduleRepository.deleteById(scheduleId);
+        userScheduleSectionRepository.deleteByUserScheduleId(scheduleId);
+        // Of two concurrent deletes only the one that removed the row moves the counter
+        if (userScheduleRepository.deleteIfExists(scheduleId) == 1) {
+            statisticsService.timetableDeleted();
+        }
     }
 
     @Transactional
-    public UserSchedule updateSchedule(Long scheduleId, SaveScheduleRequest request) throws JsonProcessingException {
+    public UserSchedule updateSchedule(Long scheduleId, SaveScheduleRequest request, Boolean strict) throws JsonProcessingException {
+        List<ScheduleConflict> conflicts = detectConflicts(request, strict);
+
         UserSchedule existingSchedule = userScheduleRepository.findById(scheduleId)
             .orElseThrow(() -> new RuntimeException("Schedule not found"));
         
-        // Convert schedules list to JSON string
-        String scheduleJson = objectMapper.writeValueAsString(request.getSchedules());
-        
         // Convert parsedPrompt Map to JSON string
         String parsedPromptJson = request.getParsedPrompt() != null 
             ? objectMapper.writeValueAsString(request.getParsedPrompt())
             : null;
         
         // Update the schedule data and timestamp
-        existingSchedule.setSchedule(scheduleJson);
+        setSchedules(existingSchedule, request.getSchedules());
         existingSchedule.setPrompt(request.getPrompt());
         existingSchedule.setParsedPrompt(parsedPromptJson);
         existingSchedule.setCreatedAt(java.time.LocalDateTime.now()); // Update timestamp
         
-        return userScheduleRepository.save(existingSchedule);
+        userScheduleSectionRepository.deleteByUserScheduleId(scheduleId);
+        UserSchedule saved = userScheduleRepository.save(existingSchedule);
+        saveSections(saved, request.getSchedules());
+        saved.setConflicts(conflicts);
+        return saved;
+    }
+
+    // Rewrites rows still holding the full JSON into the normalized layout, one transaction per batch.
+    // Idempotent: converted rows are COMPACT and no longer selected.
+    public int migrateStorage() {
+        if (!normalized()) {
+            return 0;
+        }
+        int migrated = 0;
+        long afterId = 0;
+        while (true) {
+            List<UserSchedule> batch = userScheduleRepository.findFullAfter(afterId, PageRequest.of(0, MIGRATION_BATCH_SIZE));
+            if (batch.isEmpty()) {
+                break;
+            }
+            Integer converted = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (UserSchedule userSchedule : batch) {
+                    try {
+                        List<ScheduleDTO> schedules = getScheduleAsDTO(userSchedule);
+                        setSchedules(userSchedule, schedules);
+                        userScheduleSectionRepository.deleteByUserScheduleId(userSchedule.getId());
+                        saveSections(userScheduleRepository.save(userSchedule), schedules);
+                        count++;
+                    } catch (JsonProcessingException e) {
+                        log.warn("Saved schedule {} has unreadable JSON, left as is: {}", userSchedule.getId(), e.getMessage());
+                    }
+                }
+                return count;
+            });
+            migrated += converted != null ? converted : 0;
+            afterId = batch.get(batch.size() - 1).getId();
+        }
+        if (migrated > 0) {
+            log.info("Migrated {} saved schedules to section references", migrated);
+        }
+        return migrated;
+    }
+
+    private boolean normalized() {
+        return !"json".equalsIgnoreCase(storage);
+    }
+
+    private void setSchedules(UserSchedule userSchedule, List<ScheduleDTO> schedules) throws JsonProcessingException {
+        if (normalized()) {
+            userSchedule.setSchedule(ScheduleSnapshotCodec.encode(schedules));
+            userSchedule.setStorageFormat(UserSchedule.Format.COMPACT);
+        } else {
+            userSchedule.setSchedule(objectMapper.writeValueAsString(schedules));
+            userSchedule.setStorageFormat(UserSchedule.Format.FULL);
+        }
+        userSchedule.setSectionCount(schedules.size());
+    }
+
+    // One reference row per section. schedule_id points into the dataset version active now;
+    // row_key keeps identifying the section after later imports replace that version.
+    private void saveSections(UserSchedule userSchedule, List<ScheduleDTO> schedules) {
+        if (!normalized() || schedules.isEmpty()) {
+            return;
+        }
+        // The read endpoints hand out each row's key, so the exact imported row is kept even when a
+        // sheet repeats a meeting. Timetables from before that (and older clients) only have the
+        // natural key, which names the first occurrence.
+        List<String> rowKeys = new ArrayList<>(schedules.size());
+        for (ScheduleDTO s : schedules) {
+            rowKeys.add(RowKeys.isRowKey(s.getRowKey()) ? s.getRowKey()
+                : RowKeys.scheduleKey(s.getCourseName(), s.getClassNumber(), s.getSubtopic(), s.getClassGroup(),
+                    s.getMajor(), s.getLanguage(), s.getDayOfWeek(), s.getPeriods()));
+        }
+        Map<String, Long> scheduleIds = new HashMap<>();
+        long version = datasetVersionService.activeVersion(DatasetVersionService.SCHEDULES);
+        for (ScheduleFingerprint fingerprint : scheduleRepository.findFingerprintsByDatasetVersionAndRowKeyIn(version, rowKeys)) {
+            scheduleIds.put(fingerprint.getRowKey(), fingerprint.getId());
+        }
+
+        List<UserScheduleSection> sections = new ArrayList<>(rowKeys.size());
+        for (int i = 0; i < rowKeys.size(); i++) {
+            sections.add(new UserScheduleSection(null, userSchedule.getId(), i, scheduleIds.get(rowKeys.get(i)), rowKeys.get(i)));
+        }
+        userScheduleSectionRepository.saveAll(sections);
+    }
+
+    private List<ScheduleConflict> detectConflicts(SaveScheduleRequest request, Boolean strict) {
+        List<ScheduleConflict> conflicts = scheduleConflictDetector.detect(request.getSchedules());
+        if (!conflicts.isEmpty() && (strict != null ? strict : strictByDefault)) {
+            throw new ScheduleConflictException(conflicts);
+        }
+        return conflicts;
     }
 }
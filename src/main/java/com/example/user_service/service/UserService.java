@@ -2,30 +2,99 @@ package com.example.user_service.service;
 
 import com.example.user_service.entity.User;
 import com.example.user_service.repository.UserRepository;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+// Users by email sit in a bounded cache in front of the auth endpoints. A missing key gets one
+// future that concurrent callers for it share, so a burst of first logins for one email makes
+// one query and at most one insert. The lookup itself runs on a virtual thread, outside the
+// cache's compute: only installing the future happens under the map's lock, never the query.
+// Users are never updated or deleted, so the TTL only bounds how long an entry is held.
+// Metrics: cache.* {cache=users.by_email}
 @Service
-@RequiredArgsConstructor
 public class UserService {
 
     private final UserRepository userRepository;
+    private final StatisticsService statisticsService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AsyncCache<String, User> usersByEmail;
+
+    public UserService(UserRepository userRepository,
+                       StatisticsService statisticsService,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${user.cache.max-size:50000}") long maxSize,
+                       @Value("${user.cache.ttl-ms:600000}") long ttlMillis) {
+        this.userRepository = userRepository;
+        this.statisticsService = statisticsService;
+        this.transactionTemplate = transactionTemplate;
+        this.usersByEmail = Caffeine.newBuilder()
+            .maximumSize(maxSize)
+            .expireAfterWrite(Duration.ofMillis(ttlMillis))
+            .executor(loaders)
+            .recordStats()
+            .buildAsync();
+        CaffeineCacheMetrics.monitor(meterRegistry, usersByEmail, "users.by_email");
+    }
 
-    @Transactional
     public User findOrCreateUser(String email, String name, String picture) {
-        return userRepository.findByEmail(email)
-            .orElseGet(() -> {
-                User user = new User();
-                user.setEmail(email);
-                user.setName(name);
-                user.setPicture(picture);
-                return userRepository.save(user);
-            });
+        return join(usersByEmail.get(email, (key, executor) ->
+            CompletableFuture.supplyAsync(() -> loadOrCreate(key, name, picture), executor)));
     }
 
     public User getUserByEmail(String email) {
-        return userRepository.findByEmail(email)
-            .orElseThrow(() -> new RuntimeException("User not found"));
+        // A null result is not cached
+        User user = join(usersByEmail.get(email, (key, executor) ->
+            CompletableFuture.supplyAsync(() -> userRepository.findByEmail(key).orElse(null), executor)));
+        if (user == null) {
+            throw new RuntimeException("User not found");
+        }
+        return user;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loaders.close();
+    }
+
+    // A failed load leaves the cache on its own; callers see the loader's exception
+    private static User join(CompletableFuture<User> user) {
+        try {
+            return user.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    // Committed before the entry becomes visible, so the cache never holds a rolled back user
+    private User loadOrCreate(String email, String name, String picture) {
+        try {
+            return transactionTemplate.execute(status -> userRepository.findByEmail(email)
+                .orElseGet(() -> {
+                    User user = new User();
+                    user.setEmail(email);
+                    user.setName(name);
+                    user.setPicture(picture);
+                    User saved = userRepository.save(user);
+                    statisticsService.userRegistered();
+                    return saved;
+                }));
+        } catch (DataIntegrityViolationException e) {
+            // Another instance inserted the same email between our lookup and insert
+            return userRepository.findByEmail(email).orElseThrow(() -> e);
+        }
     }
 }
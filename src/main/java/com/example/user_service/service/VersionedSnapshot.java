@@ -0,0 +1,63 @@
+package com.example.user_service.service;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+// One in-memory read model and the dataset version it was built from. Readers get it without
+// locking while the version still matches; after a bump the first reader builds under the lock and
+// the others wait for that build instead of starting their own. Builds are serialized, so an older
+// build can never replace a newer one.
+// A ReentrantLock rather than synchronized: builds wait on JDBC, and blocking inside a monitor
+// pins the carrier of a virtual thread on Java 21.
+final class VersionedSnapshot<T> {
+
+    private record Built<T>(long version, T value) {
+    }
+
+    private final LongSupplier version;
+    private final Supplier<T> builder;
+    private final AtomicReference<Built<T>> current = new AtomicReference<>();
+    private final ReentrantLock lock = new ReentrantLock();
+
+    VersionedSnapshot(LongSupplier version, Supplier<T> builder) {
+        this.version = version;
+        this.builder = builder;
+    }
+
+    T get() {
+        Built<T> built = current.get();
+        if (built != null && built.version() == version.getAsLong()) {
+            return built.value();
+        }
+        lock.lock();
+        try {
+            built = current.get();
+            if (built == null || built.version() != version.getAsLong()) {
+                built = build();
+            }
+            return built.value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Builds now whether or not the version moved, e.g. right after an import
+    T rebuild() {
+        lock.lock();
+        try {
+            return build().value();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Built<T> build() {
+        // Read first: a bump during the build leaves this one stale and the next reader builds again
+        long from = version.getAsLong();
+        Built<T> built = new Built<>(from, builder.get());
+        current.set(built);
+        return built;
+    }
+}
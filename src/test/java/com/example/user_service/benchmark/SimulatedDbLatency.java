@@ -0,0 +1,23 @@
+package com.example.user_service.benchmark;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+// Blocks the calling thread for a fixed time before every Hibernate statement, standing in for
+// the network round trip to MySQL that the embedded database does not have
+public class SimulatedDbLatency implements StatementInspector {
+
+	static volatile long millis;
+
+	@Override
+	public String inspect(String sql) {
+		long wait = millis;
+		if (wait > 0) {
+			try {
+				Thread.sleep(wait);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		return sql;
+	}
+}
@@ -0,0 +1,385 @@
+package com.example.user_service.benchmark;
+
+import com.example.user_service.UserServiceApplication;
+import com.example.user_service.dto.SaveScheduleRequest;
+import com.example.user_service.dto.ScheduleDTO;
+import com.example.user_service.entity.User;
+import com.example.user_service.repository.SemesterRepository;
+import com.example.user_service.service.ImportJobService;
+import com.example.user_service.service.UserScheduleService;
+import com.example.user_service.service.UserService;
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import org.apache.poi.xssf.usermodel.XSSFRow;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Platform vs virtual request threads on the StudentController read endpoints and on POST
+// /api/auth/login. Each mode boots the service on an in-memory H2 database (SimulatedDbLatency
+// standing in for the MySQL round trip), seeds the same data and is driven by the same
+// closed-loop clients on loopback. Logins carry ID tokens signed with a throwaway RSA key that
+// the service trusts through google.token.local-keys; two tokens per new student, so the mix
+// covers token verification, the verified-token cache and the first-login insert.
+// While the virtual mode runs, JFR records jdk.VirtualThreadPinned: a virtual thread that blocks
+// inside a synchronized block holds on to its carrier, and none of those may come from our code.
+//
+//   mvn -Pbenchmark test [-Dbenchmark.clients=400 -Dbenchmark.seconds=20 -Dbenchmark.db-latency-ms=5]
+@Tag("benchmark")
+class ThreadModeBenchmarkTest {
+
+	private static final int COURSES = 40;
+	private static final int SECTIONS_PER_COURSE = 8;
+	private static final int USERS = 100;
+	private static final int SAVED_PER_USER = 5;
+	private static final int WARMUP_LOGINS = 1_000;
+	private static final int LOGINS = 4_000;
+	private static final String CLIENT_ID = "benchmark";
+
+	private final int clients = Integer.getInteger("benchmark.clients", 300);
+	private final int seconds = Integer.getInteger("benchmark.seconds", 10);
+	private final long dbLatencyMillis = Long.getLong("benchmark.db-latency-ms", 5);
+
+	private record Result(String mode, long requests, long errors, double seconds, long p50Micros, long p99Micros) {
+		double throughput() {
+			return requests / seconds;
+		}
+	}
+
+	// Google's signing key stand-in: the public half in a PEM file, the tokens signed up front
+	private record Logins(Path publicKey, List<String> warmup, List<String> measured) {
+	}
+
+	@Test
+	void comparesPlatformAndVirtualRequestThreads() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		KeyPair keys = generator.generateKeyPair();
+		Path publicKey = Files.createTempFile("benchmark-google-key", ".pem");
+		Result platform;
+		Result virtual;
+		Map<String, Long> pinned = new ConcurrentHashMap<>();
+		try {
+			Files.writeString(publicKey, pem(keys.getPublic()));
+			List<String> credentials = credentials(keys.getPrivate(), WARMUP_LOGINS + LOGINS);
+			Logins logins = new Logins(publicKey, credentials.subList(0, WARMUP_LOGINS), credentials.subList(WARMUP_LOGINS, credentials.size()));
+			platform = run(false, null, logins);
+			virtual = run(true, pinned, logins);
+		} finally {
+			Files.deleteIfExists(publicKey);
+		}
+
+		System.out.printf("%n%d clients, %d s, %d ms per query%n", clients, seconds, dbLatencyMillis);
+		System.out.printf("%-9s %10s %8s %10s %10s %10s%n", "threads", "requests", "errors", "req/s", "p50 ms", "p99 ms");
+		for (Result r : List.of(platform, virtual)) {
+			System.out.printf("%-9s %10d %8d %10.0f %10.1f %10.1f%n",
+				r.mode(), r.requests(), r.errors(), r.throughput(), r.p50Micros() / 1000.0, r.p99Micros() / 1000.0);
+		}
+		pinned.forEach((stack, count) -> System.out.printf("pinned %d x%n%s%n", count, stack));
+
+		assertEquals(0, platform.errors());
+		assertEquals(0, virtual.errors());
+		List<String> ours = pinned.keySet().stream().filter(ThreadModeBenchmarkTest::pinnedInOurCode).toList();
+		assertTrue(ours.isEmpty(), "virtual threads pinned by synchronized code in the service: " + ours);
+	}
+
+	private Result run(boolean virtualThreads, Map<String, Long> pinned, Logins logins) throws Exception {
+		String mode = virtualThreads ? "virtual" : "platform";
+		SimulatedDbLatency.millis = 0;
+		try (ConfigurableApplicationContext context = new SpringApplicationBuilder(UserServiceApplication.class)
+			.profiles("benchmark")
+			.properties(
+				"server.port=0",
+				"spring.threads.virtual.enabled=" + virtualThreads,
+				"spring.datasource.url=jdbc:h2:mem:benchmark-" + mode + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE",
+				"google.token.local-keys=" + logins.publicKey(),
+				// by-course straight from the database, so half of the mix blocks on queries
+				"schedule.lookup.index-enabled=false")
+			.run()) {
+			List<Long> userIds = seed(context);
+			int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+			SimulatedDbLatency.millis = dbLatencyMillis;
+
+			ExecutorService clientThreads = Executors.newFixedThreadPool(2);
+			HttpClient http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).executor(clientThreads).build();
+			load(http, port, userIds, logins.warmup(), Math.min(clients, 50), 3);
+
+			RecordingStream recording = null;
+			if (pinned != null) {
+				recording = new RecordingStream();
+				recording.enable("jdk.VirtualThreadPinned").withStackTrace().withoutThreshold();
+				recording.onEvent("jdk.VirtualThreadPinned", event -> pinned.merge(stack(event.getStackTrace().getFrames()), 1L, Long::sum));
+				recording.startAsync();
+			}
+			try {
+				Result result = load(http, port, userIds, logins.measured(), clients, seconds);
+				return new Result(mode, result.requests(), result.errors(), result.seconds(), result.p50Micros(), result.p99Micros());
+			} finally {
+				if (recording != null) {
+					recording.stop();
+					recording.close();
+				}
+				clientThreads.shutdownNow();
+			}
+		} finally {
+			SimulatedDbLatency.millis = 0;
+		}
+	}
+
+	// Closed loop: every client sends its next request as soon as the previous one is answered.
+	// Clients are async chains on two client threads: a few hundred blocking client threads would
+	// out-compete the virtual thread carriers for the CPU on a small machine and skew the comparison.
+	private Result load(HttpClient http, int port, List<Long> userIds, List<String> credentials,
+						int clientCount, int durationSeconds) throws Exception {
+		long endAt = System.nanoTime() + Duration.ofSeconds(durationSeconds).toNanos();
+		AtomicLong errors = new AtomicLong();
+		List<Client> loops = new ArrayList<>();
+		long startedAt = System.nanoTime();
+		for (int c = 0; c < clientCount; c++) {
+			Client client = new Client(http, port, userIds, credentials, c, endAt, errors);
+			loops.add(client);
+			client.next();
+		}
+		for (Client client : loops) {
+			client.done.get();
+		}
+		double elapsedSeconds = (System.nanoTime() - startedAt) / 1e9;
+		long[] all = loops.stream().flatMapToLong(client -> Arrays.stream(client.samples, 0, client.count)).sorted().toArray();
+		return new Result("", all.length, errors.get(), elapsedSeconds, percentile(all, 0.50), percentile(all, 0.99));
+	}
+
+	private static final class Client {
+
+		private final HttpClient http;
+		private final int port;
+		private final List<Long> userIds;
+		private final List<String> credentials;
+		private final long endAt;
+		private final AtomicLong errors;
+		private final CompletableFuture<Void> done = new CompletableFuture<>();
+		private long[] samples = new long[1024];
+		private int count;
+		private int i;
+
+		private Client(HttpClient http, int port, List<Long> userIds, List<String> credentials, int first, long endAt,
+					   AtomicLong errors) {
+			this.http = http;
+			this.port = port;
+			this.userIds = userIds;
+			this.credentials = credentials;
+			this.i = first;
+			this.endAt = endAt;
+			this.errors = errors;
+		}
+
+		// Runs on the client threads, one request of this client at a time
+		private void next() {
+			if (System.nanoTime() >= endAt) {
+				done.complete(null);
+				return;
+			}
+			HttpRequest request = request(port, i++, userIds, credentials);
+			long sentAt = System.nanoTime();
+			http.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+				if (failure != null || response.statusCode() != 200) {
+					errors.incrementAndGet();
+				}
+				if (count == samples.length) {
+					samples = Arrays.copyOf(samples, count * 2);
+				}
+				samples[count++] = (System.nanoTime() - sentAt) / 1000;
+				next();
+			});
+		}
+	}
+
+	// Two endpoints that query the database, two served from memory, and a Google login
+	private static HttpRequest request(int port, int i, List<Long> userIds, List<String> credentials) {
+		int course = i % COURSES;
+		String path = switch (i % 5) {
+			case 0 -> "/api/student/schedules/by-course?courseName=" + encode("Học phần " + course)
+				+ "&subtopic=" + encode("Chuyên đề " + course);
+			case 1 -> "/api/student/schedules/my-schedules/summary?userId=" + userIds.get(i % userIds.size());
+			case 2 -> "/api/student/search/autocomplete?q=" + encode("hoc phan " + course);
+			case 3 -> "/api/student/academic-years";
+			default -> "/api/auth/login";
+		};
+		HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+			.timeout(Duration.ofSeconds(30));
+		if (i % 5 == 4) {
+			// Neighbouring clients send the same token at about the same time, and the list wraps
+			// around: concurrent misses as well as verified-token cache hits
+			String credential = credentials.get(i / 5 % credentials.size());
+			request.header("Content-Type", "application/json")
+				.POST(HttpRequest.BodyPublishers.ofString("{\"credential\":\"" + credential + "\"}"));
+		}
+		return request.build();
+	}
+
+	// Token n logs in student n / 2: the first of the pair creates the user, the second finds it
+	private static List<String> credentials(PrivateKey key, int count) {
+		long now = System.currentTimeMillis() / 1000;
+		return IntStream.range(0, count).parallel().mapToObj(n -> {
+			GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+				.setEmail("login" + n / 2 + "@vku.udn.vn")
+				.setEmailVerified(true);
+			payload.setIssuer("https://accounts.google.com")
+				.setAudience(CLIENT_ID)
+				.setSubject(Integer.toString(n))
+				.setIssuedAtTimeSeconds(now)
+				.setExpirationTimeSeconds(now + 3600)
+				.set("name", "Sinh viên " + n / 2);
+			try {
+				return JsonWebSignature.signUsingRsaSha256(key, GsonFactory.getDefaultInstance(),
+					new JsonWebSignature.Header().setAlgorithm("RS256").setType("JWT"), payload);
+			} catch (Exception e) {
+				throw new IllegalStateException(e);
+			}
+		}).toList();
+	}
+
+	private static String pem(PublicKey key) {
+		return "-----BEGIN PUBLIC KEY-----\n" + Base64.getMimeEncoder().encodeToString(key.getEncoded())
+			+ "\n-----END PUBLIC KEY-----\n";
+	}
+
+	private static List<Long> seed(ConfigurableApplicationContext context) throws Exception {
+		ImportJobService imports = context.getBean(ImportJobService.class);
+		imports.submitCourseImport(courseWorkbook(), null).getCompletion().join();
+		imports.submitScheduleImport(scheduleWorkbook(), null).getCompletion().join();
+
+		UserService users = context.getBean(UserService.class);
+		UserScheduleService savedSchedules = context.getBean(UserScheduleService.class);
+		Long semesterId = context.getBean(SemesterRepository.class).findAll().get(0).getId();
+		List<Long> userIds = new ArrayList<>();
+		for (int u = 0; u < USERS; u++) {
+			User user = users.findOrCreateUser("sv" + u + "@vku.udn.vn", "Sinh viên " + u, null);
+			userIds.add(user.getId());
+			for (int s = 0; s < SAVED_PER_USER; s++) {
+				List<ScheduleDTO> picks = new ArrayList<>();
+				for (int c = 0; c < 5; c++) {
+					int course = (u + s + c * 7) % COURSES;
+					picks.add(new ScheduleDTO("Học phần " + course, 1 + s % SECTIONS_PER_COURSE, "Tiếng Việt", "IT", "SE",
+						"Chuyên đề " + course, "GV " + course, "Thứ " + (2 + c), "[1, 2, 3]", "K", "A101", "1-15", 40, null));
+				}
+				savedSchedules.saveSchedule(new SaveScheduleRequest(user.getId(), semesterId, picks, null, null), false);
+			}
+		}
+		return userIds;
+	}
+
+	private static MockMultipartFile scheduleWorkbook() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			XSSFSheet sheet = workbook.createSheet("Sheet1");
+			header(sheet.createRow(0), "STT", "Tên lớp học phần", "Giảng viên", "Thời khóa biểu", "Phòng học", "Tuần học", "Sỉ số");
+			int row = 1;
+			for (int c = 0; c < COURSES; c++) {
+				for (int s = 1; s <= SECTIONS_PER_COURSE; s++) {
+					XSSFRow r = sheet.createRow(row++);
+					r.createCell(1).setCellValue("Học phần " + c + " (IT)(" + s + ")_SE_Chuyên đề " + c + "_TV");
+					r.createCell(2).setCellValue("GV " + (c * SECTIONS_PER_COURSE + s) % 60);
+					r.createCell(3).setCellValue("Thứ " + (2 + (c + s) % 5) + ", Tiết " + (1 + s % 3) + "->" + (3 + s % 3));
+					r.createCell(4).setCellValue("K.A" + (100 + s));
+					r.createCell(5).setCellValue("1-15");
+					r.createCell(6).setCellValue(40);
+				}
+			}
+			return file(workbook, "schedules.xlsx");
+		}
+	}
+
+	private static MockMultipartFile courseWorkbook() throws Exception {
+		try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+			XSSFSheet sheet = workbook.createSheet("Sheet1");
+			sheet.createRow(0).createCell(0).setCellValue("DANH MỤC HỌC PHẦN HỌC KỲ 1 NĂM HỌC 2025-2026");
+			header(sheet.createRow(5), "STT", "Tên học phần", "LT", "TH", "Tổng", "Ghi chú", "Lớp");
+			for (int c = 0; c < COURSES; c++) {
+				XSSFRow r = sheet.createRow(6 + c);
+				r.createCell(0).setCellValue(c + 1);
+				r.createCell(1).setCellValue("Học phần " + c + " (IT)");
+				r.createCell(2).setCellValue(2);
+				r.createCell(3).setCellValue(1);
+				r.createCell(4).setCellValue(3);
+				r.createCell(5).setCellValue("Chuyên đề " + c);
+				r.createCell(6).setCellValue("22IT1->3");
+			}
+			return file(workbook, "courses.xlsx");
+		}
+	}
+
+	private static void header(XSSFRow row, String... columns) {
+		for (int i = 0; i < columns.length; i++) {
+			row.createCell(i).setCellValue(columns[i]);
+		}
+	}
+
+	private static MockMultipartFile file(XSSFWorkbook workbook, String name) throws Exception {
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		workbook.write(bytes);
+		return new MockMultipartFile("file", name, null, bytes.toByteArray());
+	}
+
+	private static String stack(List<RecordedFrame> frames) {
+		return frames.stream()
+			.limit(16)
+			.map(f -> "  " + f.getMethod().getType().getName() + "." + f.getMethod().getName() + ":" + f.getLineNumber())
+			.collect(Collectors.joining("\n"));
+	}
+
+	// Pinned while blocked under one of our service classes; the latency inspector sits above
+	// every JDBC call so it is skipped, and a controller frame on top means nothing of ours holds a monitor
+	private static boolean pinnedInOurCode(String stack) {
+		return stack.lines()
+			.filter(frame -> frame.startsWith("  com.example.user_service."))
+			.filter(frame -> !frame.contains(".benchmark."))
+			.findFirst()
+			.map(frame -> !frame.contains(".controller."))
+			.orElse(false);
+	}
+
+	private static long percentile(long[] sorted, double p) {
+		return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) Math.ceil(p * sorted.length) - 1)];
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value, StandardCharsets.UTF_8);
+	}
+}
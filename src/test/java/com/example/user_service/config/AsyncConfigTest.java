@@ -0,0 +1,42 @@
+package com.example.user_service.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.autoconfigure.task.TaskSchedulingAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.scheduling.annotation.Async;
+
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncConfigTest {
+
+	private final ApplicationContextRunner runner = new ApplicationContextRunner()
+		.withConfiguration(AutoConfigurations.of(TaskExecutionAutoConfiguration.class, TaskSchedulingAutoConfiguration.class))
+		.withUserConfiguration(AsyncConfig.class, SchedulingConfig.class, Probe.class);
+
+	@Test
+	void asyncRunsOnVirtualThreadsWhenEnabled() {
+		runner.withPropertyValues("spring.threads.virtual.enabled=true").run(context ->
+			assertTrue(context.getBean(Probe.class).thread().join().isVirtual()));
+	}
+
+	@Test
+	void asyncRunsOnTheBoundedPoolByDefault() {
+		runner.run(context -> {
+			Thread thread = context.getBean(Probe.class).thread().join();
+			assertFalse(thread.isVirtual());
+			assertTrue(thread.getName().startsWith("task-"), thread.getName());
+		});
+	}
+
+	static class Probe {
+		@Async
+		public CompletableFuture<Thread> thread() {
+			return CompletableFuture.completedFuture(Thread.currentThread());
+		}
+	}
+}
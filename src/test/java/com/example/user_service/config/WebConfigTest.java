@@ -0,0 +1,52 @@
+package com.example.user_service.config;
+
+import com.example.user_service.service.CatalogVersion;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WebConfigTest {
+
+	private final MappedInterceptor etags = catalogETags();
+
+	@Test
+	void catalogRoutesGetTheCatalogETag() {
+		assertTrue(applies("/api/student/schedules/by-course"));
+		assertTrue(applies("/api/student/catalog/3"));
+		assertTrue(applies("/api/admin/schedules"));
+	}
+
+	@Test
+	void savedTimetablesAreLeftUncached() {
+		assertFalse(applies("/api/student/schedules/my-schedules"));
+		assertFalse(applies("/api/student/schedules/my-schedules/summary"));
+		assertFalse(applies("/api/student/schedules/42"));
+	}
+
+	private boolean applies(String uri) {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", uri);
+		// The handler mapping parses the path before it consults mapped interceptors
+		ServletRequestPathUtils.parseAndCache(request);
+		return etags.matches(request);
+	}
+
+	private static MappedInterceptor catalogETags() {
+		Registry registry = new Registry();
+		new WebConfig(new CatalogETagInterceptor(new CatalogVersion())).addInterceptors(registry);
+		return (MappedInterceptor) registry.getInterceptors().get(0);
+	}
+
+	private static class Registry extends InterceptorRegistry {
+		@Override
+		protected List<Object> getInterceptors() {
+			return super.getInterceptors();
+		}
+	}
+}
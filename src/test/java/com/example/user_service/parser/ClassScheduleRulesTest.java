@@ -0,0 +1,77 @@
+package com.example.user_service.parser;
+
+import com.example.user_service.entity.Schedule;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Expected values were produced by python/process_classes.py for the same input
+class ClassScheduleRulesTest {
+
+	@Test
+	void splitsClassNameWithMajorGroupAndSubtopic() {
+		Schedule schedule = parse("Lập trình Java (IT)(03)_SE_Java web_TA");
+
+		assertEquals("Lập trình Java", schedule.getCourseName());
+		assertEquals(3, schedule.getClassNumber());
+		assertEquals("Tiếng Anh", schedule.getLanguage());
+		assertEquals("IT", schedule.getMajor());
+		assertEquals("SE", schedule.getClassGroup());
+		assertEquals("Java web", schedule.getSubtopic());
+	}
+
+	@Test
+	void dropsAbbreviatedSubtopicAndSpacesClassGroups() {
+		Schedule schedule = parse("Kinh tế vi mô (12)_GBA,BA_TA");
+
+		assertEquals("Kinh tế vi mô", schedule.getCourseName());
+		assertEquals(12, schedule.getClassNumber());
+		assertEquals("", schedule.getMajor());
+		assertEquals("GBA, BA", schedule.getClassGroup());
+		assertEquals("", schedule.getSubtopic());
+	}
+
+	@Test
+	void handlesPhysicalEducationClasses() {
+		Schedule schedule = parse("GDTC 2 (Bóng chuyền)-05");
+
+		assertEquals("GDTC 2", schedule.getCourseName());
+		assertEquals(5, schedule.getClassNumber());
+		assertEquals("Tiếng Việt", schedule.getLanguage());
+		assertEquals("", schedule.getClassGroup());
+		assertEquals("Bóng chuyền", schedule.getSubtopic());
+	}
+
+	@Test
+	void expandsPeriodsAndSplitsRoom() {
+		Schedule schedule = new Schedule();
+		ClassScheduleRules.applyTimetable(schedule, "Thứ 3, Tiết 1->3,5");
+		ClassScheduleRules.applyRoom(schedule, "K.A201");
+
+		assertEquals("Thứ 3", schedule.getDayOfWeek());
+		assertEquals("[1, 2, 3, 5]", schedule.getPeriods());
+		assertEquals("K", schedule.getLocation());
+		assertEquals("A201", schedule.getRoomNumber());
+	}
+
+	@Test
+	void keepsUnscheduledRoomsAsLocation() {
+		Schedule schedule = new Schedule();
+		ClassScheduleRules.applyTimetable(schedule, "Chưa xếp lịch");
+		ClassScheduleRules.applyRoom(schedule, "Chưa xếp phòng");
+
+		assertEquals("", schedule.getDayOfWeek());
+		assertEquals("[]", schedule.getPeriods());
+		assertEquals("Chưa xếp phòng", schedule.getLocation());
+		assertEquals("", schedule.getRoomNumber());
+		assertNull(ClassScheduleRules.parseInteger("n/a"));
+	}
+
+	private Schedule parse(String className) {
+		Schedule schedule = new Schedule();
+		ClassScheduleRules.applyClassName(schedule, className);
+		ClassScheduleRules.applySubtopic(schedule, schedule.getSubtopic());
+		return schedule;
+	}
+}
@@ -0,0 +1,32 @@
+package com.example.user_service.parser;
+
+import com.example.user_service.dto.ScheduleDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleSnapshotCodecTest {
+
+	private final List<ScheduleDTO> schedules = List.of(
+		new ScheduleDTO("Lập trình Java", 1, "Tiếng Anh", "IT", "SE", "Java web", "Nguyễn Văn A",
+			"Thứ 2", "[1, 2, 3]", "K", "A201", "1-15", 40, RowKeys.withOccurrence("Lập trình Java", 2)),
+		new ScheduleDTO("Toán rời rạc", 2, null, null, null, null, null, "Thứ 4", "[6, 7]", null, null, null, null, null));
+
+	@Test
+	void roundTripsSections() {
+		assertEquals(schedules, ScheduleSnapshotCodec.decode(ScheduleSnapshotCodec.encode(schedules)));
+	}
+
+	@Test
+	void expandsToTheKeyedJsonAndIsSmaller() throws Exception {
+		String full = new ObjectMapper().writeValueAsString(schedules);
+		String compact = ScheduleSnapshotCodec.encode(schedules);
+
+		assertEquals(full, ScheduleSnapshotCodec.expand(compact));
+		assertTrue(compact.length() * 2 < full.length() + 100, "about half the size");
+	}
+}
@@ -0,0 +1,53 @@
+package com.example.user_service.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSlotCodecTest {
+
+	@Test
+	void parsesDaysFromMondayToSunday() {
+		assertEquals(0, TimeSlotCodec.dayIndex("Thứ 2"));
+		assertEquals(5, TimeSlotCodec.dayIndex("Thứ 7"));
+		assertEquals(2, TimeSlotCodec.dayIndex("Thứ Tư"));
+		assertEquals(6, TimeSlotCodec.dayIndex("Chủ nhật"));
+		assertNull(TimeSlotCodec.dayIndex(""));
+	}
+
+	@Test
+	void encodesBothPeriodFormats() {
+		int mask = TimeSlotCodec.periodMask("[1, 2, 3]");
+
+		assertEquals(mask, TimeSlotCodec.periodMask("1->3"));
+		assertEquals(List.of(1, 2, 3), TimeSlotCodec.periods(mask));
+		assertEquals(List.of(1, 2, 3, 5), TimeSlotCodec.periods(TimeSlotCodec.periodMask("1->3,5")));
+		assertEquals(0, TimeSlotCodec.periodMask("[]"));
+		assertEquals(List.of(3, 4), TimeSlotCodec.periods(TimeSlotCodec.periodMask("3.0-4.0")));
+	}
+
+	@Test
+	void encodesWeekRangesAndLists() {
+		assertEquals(0x7FFFL, TimeSlotCodec.weekMask("1-15"));
+		assertEquals(0b111L, TimeSlotCodec.weekMask("1,2,3"));
+		assertEquals(0b1100011L, TimeSlotCodec.weekMask("1-2, 6-7"));
+		assertEquals(1L << 63, TimeSlotCodec.weekMask("64"));
+		assertEquals(0L, TimeSlotCodec.weekMask(""));
+	}
+
+	@Test
+	void overlapNeedsSameDayPeriodAndWeek() {
+		TimeSlot morning = new TimeSlot(0, TimeSlotCodec.periodMask("1->3"), TimeSlotCodec.weekMask("1-8"));
+
+		assertTrue(morning.overlaps(new TimeSlot(0, TimeSlotCodec.periodMask("3->5"), TimeSlotCodec.weekMask("8-15"))));
+		assertFalse(morning.overlaps(new TimeSlot(0, TimeSlotCodec.periodMask("3->5"), TimeSlotCodec.weekMask("9-15"))));
+		assertFalse(morning.overlaps(new TimeSlot(1, TimeSlotCodec.periodMask("1->3"), TimeSlotCodec.weekMask("1-8"))));
+		// Unknown weeks count as every week
+		assertTrue(morning.overlaps(new TimeSlot(0, TimeSlotCodec.periodMask("2"), 0)));
+	}
+}
@@ -0,0 +1,72 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.SearchSuggestion;
+import com.example.user_service.entity.Schedule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseSearchIndexTest {
+
+	private final ScheduleLookupIndex lookupIndex = mock(ScheduleLookupIndex.class);
+	private final CourseSearchIndex index = new CourseSearchIndex(lookupIndex, new CatalogVersion());
+	private final List<List<Schedule>> sections = new ArrayList<>();
+
+	@BeforeEach
+	void load() {
+		sections.add(List.of(row("Lập trình Java", "Java web", "Đặng Văn Đức"), row("Lập trình Java", "Java web", "Trần Thị Hoa")));
+		sections.add(List.of(row("Lập trình Python", null, "Đặng Văn Đức")));
+		sections.add(List.of(row("Toán rời rạc", null, "Lê Minh")));
+		when(lookupIndex.sections()).thenReturn(sections);
+	}
+
+	@Test
+	void foldsVietnameseDiacritics() {
+		assertEquals("lap trinh da nen tang", CourseSearchIndex.fold("Lập Trình Đa nền tảng"));
+	}
+
+	@Test
+	void autocompletesWordPrefixesWithoutDiacritics() {
+		List<SearchSuggestion> hits = index.autocomplete("lap trinh j", 10);
+
+		assertEquals(1, hits.size());
+		assertEquals("Lập trình Java", hits.get(0).getCourseName());
+		assertEquals("Java web", hits.get(0).getSubtopic());
+		assertEquals(2, hits.get(0).getSections());
+
+		List<SearchSuggestion> instructors = index.autocomplete("dang duc", 10);
+		assertEquals(1, instructors.size());
+		assertEquals(SearchSuggestion.Type.INSTRUCTOR, instructors.get(0).getType());
+		assertEquals(2, instructors.get(0).getSections());
+	}
+
+	@Test
+	void fuzzySearchToleratesTypos() {
+		List<SearchSuggestion> hits = index.fuzzy("lap trnh pyton", 5);
+
+		assertEquals("Lập trình Python", hits.get(0).getCourseName());
+		assertTrue(hits.get(0).getScore() > 0.3);
+	}
+
+	@Test
+	void resolvesCourseNameFragments() {
+		assertEquals(Set.of("Lập trình Java", "Lập trình Python"), index.matchingCourseNames("LAP TRINH"));
+		assertTrue(index.matchingCourseNames("hoa hoc").isEmpty());
+	}
+
+	private static Schedule row(String course, String subtopic, String instructor) {
+		Schedule schedule = new Schedule();
+		schedule.setCourseName(course);
+		schedule.setSubtopic(subtopic);
+		schedule.setInstructor(instructor);
+		return schedule;
+	}
+}
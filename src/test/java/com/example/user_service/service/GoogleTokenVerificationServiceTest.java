@@ -0,0 +1,63 @@
+package com.example.user_service.service;
+
+import com.google.api.client.googleapis.auth.oauth2.GoogleIdToken;
+import com.google.api.client.json.gson.GsonFactory;
+import com.google.api.client.json.webtoken.JsonWebSignature;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GoogleTokenVerificationServiceTest {
+
+	@TempDir
+	Path dir;
+
+	@Test
+	void verifiesSelfSignedTokensAgainstLocalKeys() throws Exception {
+		KeyPair trusted = rsa();
+		Path pem = dir.resolve("keys.pem");
+		Files.writeString(pem, "-----BEGIN PUBLIC KEY-----\n"
+			+ Base64.getMimeEncoder().encodeToString(trusted.getPublic().getEncoded())
+			+ "\n-----END PUBLIC KEY-----\n");
+		GoogleTokenVerificationService service =
+			new GoogleTokenVerificationService(new SimpleMeterRegistry(), "client", pem.toString(), 100, 60_000);
+
+		String token = sign(trusted.getPrivate(), "client", "sv@vku.udn.vn");
+		GoogleIdToken.Payload payload = service.verify(token);
+		assertEquals("sv@vku.udn.vn", payload.getEmail());
+		assertSame(payload, service.verify(token));
+
+		assertNull(service.verify(sign(trusted.getPrivate(), "another-client", "sv@vku.udn.vn")));
+		assertNull(service.verify(sign(rsa().getPrivate(), "client", "sv@vku.udn.vn")));
+		assertNull(service.verify("not-a-token"));
+	}
+
+	private static KeyPair rsa() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("RSA");
+		generator.initialize(2048);
+		return generator.generateKeyPair();
+	}
+
+	private static String sign(PrivateKey key, String audience, String email) throws Exception {
+		JsonWebSignature.Header header = new JsonWebSignature.Header().setAlgorithm("RS256").setKeyId("local");
+		long now = System.currentTimeMillis() / 1000;
+		GoogleIdToken.Payload payload = new GoogleIdToken.Payload()
+			.setIssuer("https://accounts.google.com")
+			.setAudience(audience)
+			.setIssuedAtTimeSeconds(now)
+			.setExpirationTimeSeconds(now + 3600)
+			.setEmail(email);
+		return JsonWebSignature.signUsingRsaSha256(key, GsonFactory.getDefaultInstance(), header, payload);
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.user_service.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTest {
+
+	private final ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+		new ArrayBlockingQueue<>(1), new ThreadPoolExecutor.AbortPolicy());
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final PasswordHashingService service = new PasswordHashingService(pool, registry, 10_000);
+
+	@AfterEach
+	void shutdown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void hashesAndVerifiesOnThePool() {
+		String hash = service.encode("admin123");
+
+		assertTrue(service.matches("admin123", hash));
+		assertFalse(service.matches("admin124", hash));
+		assertEquals(3, registry.get("admin.password.hash").timers().stream().mapToLong(t -> t.count()).sum());
+	}
+
+	@Test
+	void rejectsWhenThePoolAndQueueAreFull() throws InterruptedException {
+		String hash = service.encode("admin123");
+		CountDownLatch running = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		pool.execute(() -> {
+			running.countDown();
+			awaitQuietly(release);
+		});
+		running.await();
+		CountDownLatch drained = new CountDownLatch(1);
+		pool.execute(() -> {
+			awaitQuietly(release);
+			drained.countDown();
+		});
+
+		// One task running and one queued: the next check is turned away instead of waiting
+		assertThrows(PasswordHashingBusyException.class, () -> service.matches("admin123", hash));
+		assertEquals(1, registry.get("admin.password.rejected").counter().count());
+
+		release.countDown();
+		drained.await();
+		assertTrue(service.matches("admin123", hash));
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
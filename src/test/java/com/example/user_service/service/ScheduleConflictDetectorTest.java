@@ -0,0 +1,77 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.ScheduleConflict;
+import com.example.user_service.dto.ScheduleDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScheduleConflictDetectorTest {
+
+	private final ScheduleConflictDetector detector = new ScheduleConflictDetector();
+
+	@Test
+	void reportsOverlappingPeriodsAndWeeks() {
+		List<ScheduleConflict> conflicts = detector.detect(List.of(
+			section("Lập trình Java", 1, "Thứ 2", "[1, 2, 3]", "1-10"),
+			section("Toán rời rạc", 2, "Thứ 2", "[3, 4]", "8-15"),
+			section("Kinh tế vi mô", 1, "Thứ 3", "[1, 2, 3]", "1-15")
+		));
+
+		assertEquals(1, conflicts.size());
+		ScheduleConflict conflict = conflicts.get(0);
+		assertEquals(0, conflict.getFirstIndex());
+		assertEquals(1, conflict.getSecondIndex());
+		assertEquals(List.of(3), conflict.getPeriods());
+		assertEquals(List.of(8, 9, 10), conflict.getWeeks());
+	}
+
+	@Test
+	void ignoresDisjointWeeksAndRowsOfTheSameSection() {
+		List<ScheduleConflict> conflicts = detector.detect(List.of(
+			section("Lập trình Java", 1, "Thứ 2", "[1, 2, 3]", "1-7"),
+			section("Toán rời rạc", 2, "Thứ 2", "[1, 2, 3]", "8-15"),
+			section("Lập trình Java", 1, "Thứ 2", "[2, 3]", "1-7")
+		));
+
+		assertTrue(conflicts.isEmpty());
+	}
+
+	@Test
+	void treatsMissingWeeksAsEveryWeek() {
+		List<ScheduleConflict> conflicts = detector.detect(List.of(
+			section("Lập trình Java", 1, "Thứ 5", "[6, 7]", ""),
+			section("Toán rời rạc", 2, "Thứ 5", "[7, 8]", "12-15")
+		));
+
+		assertEquals(1, conflicts.size());
+		assertEquals(List.of(12, 13, 14, 15), conflicts.get(0).getWeeks());
+	}
+
+	@Test
+	void findsEveryOverlapInATenSectionTimetable() {
+		assertEquals(3, detector.detect(tenSections()).size());
+	}
+
+	private List<ScheduleDTO> tenSections() {
+		List<ScheduleDTO> timetable = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			timetable.add(section("Course " + i, 1, "Thứ " + (2 + i % 5), "[" + (1 + i % 3) + ", " + (2 + i % 3) + "]", "1-15"));
+		}
+		return timetable;
+	}
+
+	private ScheduleDTO section(String course, int classNumber, String day, String periods, String weeks) {
+		ScheduleDTO dto = new ScheduleDTO();
+		dto.setCourseName(course);
+		dto.setClassNumber(classNumber);
+		dto.setDayOfWeek(day);
+		dto.setPeriods(periods);
+		dto.setWeeks(weeks);
+		return dto;
+	}
+}
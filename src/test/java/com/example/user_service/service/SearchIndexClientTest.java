@@ -0,0 +1,110 @@
+package com.example.user_service.service;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Runs against a local stand-in for the search service's /api/courses endpoints
+class SearchIndexClientTest {
+
+	private HttpServer server;
+	private final List<String> bulkBodies = new CopyOnWriteArrayList<>();
+	private final AtomicInteger singleRequests = new AtomicInteger();
+	private final AtomicInteger concurrent = new AtomicInteger();
+	private final AtomicInteger maxConcurrent = new AtomicInteger();
+	private volatile boolean bulkAvailable = true;
+
+	@BeforeEach
+	void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.setExecutor(Executors.newFixedThreadPool(8));
+		server.createContext("/api/courses/bulk", exchange -> {
+			int now = concurrent.incrementAndGet();
+			maxConcurrent.accumulateAndGet(now, Math::max);
+			try {
+				String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+				if (!bulkAvailable) {
+					exchange.sendResponseHeaders(404, -1);
+					return;
+				}
+				Thread.sleep(20);
+				bulkBodies.add(body);
+				exchange.sendResponseHeaders(200, -1);
+			} catch (InterruptedException e) {
+				exchange.sendResponseHeaders(500, -1);
+			} finally {
+				concurrent.decrementAndGet();
+				exchange.close();
+			}
+		});
+		server.createContext("/api/courses/index", exchange -> {
+			exchange.getRequestBody().readAllBytes();
+			singleRequests.incrementAndGet();
+			exchange.sendResponseHeaders(200, -1);
+			exchange.close();
+		});
+		server.start();
+	}
+
+	@AfterEach
+	void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	void sendsDeduplicatedDocumentsInBoundedBatches() {
+		SearchIndexClient client = client(100, 2);
+
+		long startedAt = System.nanoTime();
+		SearchIndexClient.Session session = client.openSession();
+		try (session) {
+			for (int i = 0; i < 1000; i++) {
+				// Every course shows up for two classes
+				session.add(new SearchIndexClient.Document("Course " + i, null));
+				session.add(new SearchIndexClient.Document("Course " + i, ""));
+			}
+		}
+		double docsPerSecond = session.getIndexed() * 1_000_000_000.0 / (System.nanoTime() - startedAt);
+
+		assertEquals(1000, session.getIndexed());
+		assertEquals(10, session.getBatches());
+		assertEquals(10, bulkBodies.size());
+		assertTrue(maxConcurrent.get() <= 2, "at most two batches in flight");
+		assertEquals(0, singleRequests.get());
+		assertTrue(docsPerSecond > 0);
+	}
+
+	@Test
+	void fallsBackToSingleDocumentsWithoutBulkEndpoint() {
+		bulkAvailable = false;
+		SearchIndexClient client = client(50, 1);
+
+		SearchIndexClient.Session session = client.openSession();
+		try (session) {
+			for (int i = 0; i < 120; i++) {
+				session.add(new SearchIndexClient.Document("Course " + i, "Topic"));
+			}
+		}
+
+		assertEquals(120, session.getIndexed());
+		assertEquals(120, singleRequests.get());
+		assertEquals(0, session.getFailedBatches());
+	}
+
+	private SearchIndexClient client(int batchSize, int maxInFlight) {
+		String url = "http://127.0.0.1:" + server.getAddress().getPort();
+		return new SearchIndexClient(url, "/api/courses/bulk", batchSize, 60_000, maxInFlight, 1000, 5000);
+	}
+}
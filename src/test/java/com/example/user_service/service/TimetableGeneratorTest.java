@@ -0,0 +1,159 @@
+package com.example.user_service.service;
+
+import com.example.user_service.dto.GenerateScheduleRequest;
+import com.example.user_service.dto.GenerateScheduleResponse;
+import com.example.user_service.dto.GeneratedTimetable;
+import com.example.user_service.dto.ScheduleDTO;
+import com.example.user_service.entity.Schedule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TimetableGeneratorTest {
+
+	private final ScheduleLookupIndex index = mock(ScheduleLookupIndex.class);
+	private final ForkJoinPool pool = new ForkJoinPool(4);
+	private final TimetableGenerator generator = new TimetableGenerator(index, pool, 5, 12, 10, 50, 2000, 5000);
+	private final ScheduleConflictDetector detector = new ScheduleConflictDetector();
+
+	@AfterEach
+	void shutdown() {
+		pool.shutdownNow();
+	}
+
+	@Test
+	void appliesHardConstraintsAndRanksPreferredInstructors() {
+		course("Toán rời rạc",
+			section("Toán rời rạc", 1, "Thứ 2", "1->3", "Lê Văn B"),
+			section("Toán rời rạc", 2, "Thứ 3", "6->8", "Nguyễn Văn A"),
+			section("Toán rời rạc", 3, "Thứ 4", "6->8", "Lê Văn B"));
+		course("Lập trình Java",
+			section("Lập trình Java", 1, "Thứ 3", "7->9", "Trần C"),
+			section("Lập trình Java", 2, "Thứ 4", "6->8", "Trần C"),
+			section("Lập trình Java", 3, "Thứ 5", "6->8", "Trần C"));
+
+		GenerateScheduleRequest request = request("Toán rời rạc", "Lập trình Java");
+		request.setNoMorning(true);
+		request.setDaysOff(List.of("Thứ 5"));
+		request.setPreferredInstructors(List.of("nguyễn văn a"));
+		GenerateScheduleResponse response = generator.generate(request);
+
+		assertTrue(response.isComplete());
+		// Java 3 is on the day off, Toán 1 is in the morning; Toán 2 + Java 1 and Toán 3 + Java 2 overlap
+		assertEquals(2, response.getTimetables().size());
+		GeneratedTimetable best = response.getTimetables().get(0);
+		assertEquals(1, best.getPreferredInstructors());
+		assertEquals(List.of(2, 2), best.getSchedules().stream().map(ScheduleDTO::getClassNumber).toList());
+	}
+
+	@Test
+	void reportsCoursesWithoutUsableSections() {
+		course("Toán rời rạc", section("Toán rời rạc", 1, "Thứ 2", "1->3", "Lê Văn B"));
+
+		GenerateScheduleRequest request = request("Toán rời rạc");
+		request.setNoMorning(true);
+		GenerateScheduleResponse response = generator.generate(request);
+
+		assertTrue(response.getTimetables().isEmpty());
+		assertEquals(List.of("Toán rời rạc"), response.getUnavailableCourses());
+	}
+
+	@Test
+	void stopsAtTheTimeBudget() {
+		GenerateScheduleRequest request = request(tenCourses());
+		request.setTimeBudgetMs(1L);
+		GenerateScheduleResponse response = generator.generate(request);
+
+		// Far more than a millisecond of search space: the run is cut short, not exhausted
+		assertFalse(response.isComplete());
+		assertTrue(response.getExplored() > 0);
+		for (GeneratedTimetable timetable : response.getTimetables()) {
+			assertEquals(10, timetable.getSchedules().size());
+			assertTrue(detector.detect(timetable.getSchedules()).isEmpty());
+		}
+	}
+
+	@Test
+	void streamStopsWhenTheSinkDeclines() {
+		course("Toán rời rạc",
+			section("Toán rời rạc", 1, "Thứ 2", "1->3", "Lê Văn B"),
+			section("Toán rời rạc", 2, "Thứ 3", "1->3", "Lê Văn B"),
+			section("Toán rời rạc", 3, "Thứ 4", "1->3", "Lê Văn B"));
+
+		List<GeneratedTimetable> received = new ArrayList<>();
+		GenerateScheduleResponse summary = generator.stream(request("Toán rời rạc"), 1000, () -> false, timetable -> {
+			received.add(timetable);
+			return received.size() < 2;
+		});
+
+		assertEquals(2, received.size());
+		assertFalse(summary.isComplete());
+	}
+
+	// 10 courses x 8 sections spread over the week, enough to keep the search busy for seconds
+	private String[] tenCourses() {
+		List<String> names = new ArrayList<>();
+		for (int c = 0; c < 10; c++) {
+			String name = "Course " + c;
+			names.add(name);
+			Schedule[] sections = new Schedule[8];
+			for (int s = 0; s < 8; s++) {
+				int day = 2 + (c + s) % 6;
+				int start = 1 + ((c * 3 + s) % 4) * 2;
+				sections[s] = section(name, s + 1, "Thứ " + day, start + "->" + (start + 1), "GV " + s);
+			}
+			course(name, sections);
+		}
+		return names.toArray(String[]::new);
+	}
+
+	@Test
+	void streamStopsSoonAfterTheClientIsGone() {
+		AtomicBoolean cancelled = new AtomicBoolean();
+		GenerateScheduleResponse summary = generator.stream(request(tenCourses()), 60_000, cancelled::get, timetable -> {
+			cancelled.set(true);
+			return true;
+		});
+
+		// A minute of search left in the budget, but the walk notices at its next deadline check
+		assertFalse(summary.isComplete());
+		assertTrue(summary.getExplored() < 10_000, "stopped after " + summary.getExplored() + " nodes");
+	}
+
+	private void course(String name, Schedule... sections) {
+		when(index.find(eq(name), any())).thenReturn(List.of(sections));
+	}
+
+	private static GenerateScheduleRequest request(String... courses) {
+		GenerateScheduleRequest request = new GenerateScheduleRequest();
+		List<GenerateScheduleRequest.CourseSelection> selections = new ArrayList<>();
+		for (String course : courses) {
+			selections.add(new GenerateScheduleRequest.CourseSelection(course, null));
+		}
+		request.setCourses(selections);
+		return request;
+	}
+
+	private static Schedule section(String course, int classNumber, String day, String periods, String instructor) {
+		Schedule schedule = new Schedule();
+		schedule.setCourseName(course);
+		schedule.setClassNumber(classNumber);
+		schedule.setInstructor(instructor);
+		schedule.setDayOfWeek(day);
+		schedule.setPeriods(periods);
+		schedule.setWeeks("1-15");
+		return schedule;
+	}
+}
@@ -0,0 +1,78 @@
+package com.example.user_service.service;
+
+import com.example.user_service.entity.User;
+import com.example.user_service.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class UserServiceTest {
+
+	private final Map<String, User> rows = new ConcurrentHashMap<>();
+	private final AtomicInteger inserts = new AtomicInteger();
+	private final UserRepository userRepository = mock(UserRepository.class);
+	private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+	private final UserService userService;
+	private final ExecutorService clients = Executors.newFixedThreadPool(16);
+
+	UserServiceTest() {
+		when(userRepository.findByEmail(anyString())).thenAnswer(inv -> Optional.ofNullable(rows.get(inv.<String>getArgument(0))));
+		when(userRepository.save(any(User.class))).thenAnswer(inv -> {
+			User user = inv.getArgument(0);
+			// Slow enough that every client is already waiting on the first login
+			Thread.sleep(50);
+			inserts.incrementAndGet();
+			rows.put(user.getEmail(), user);
+			return user;
+		});
+		when(transactionTemplate.execute(any())).thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+		userService = new UserService(userRepository, mock(StatisticsService.class), transactionTemplate,
+			new SimpleMeterRegistry(), 100, 60_000);
+	}
+
+	@AfterEach
+	void shutdown() {
+		clients.shutdownNow();
+		userService.shutdown();
+	}
+
+	@Test
+	void concurrentFirstLoginsCreateOneUser() throws Exception {
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<User>> logins = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			logins.add(clients.submit(() -> {
+				start.await();
+				return userService.findOrCreateUser("sv@vku.udn.vn", "Sinh viên", null);
+			}));
+		}
+		start.countDown();
+
+		User first = logins.get(0).get();
+		for (Future<User> login : logins) {
+			assertSame(first, login.get());
+		}
+		assertEquals(1, inserts.get());
+		assertSame(first, userService.getUserByEmail("sv@vku.udn.vn"));
+	}
+}